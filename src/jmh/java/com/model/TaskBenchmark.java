@@ -0,0 +1,43 @@
+package com.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task construction and withDate (the drag-and-drop path).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskBenchmark {
+
+    private final LocalDate date = LocalDate.of(2025, 1, 1);
+    private final LocalDate other = LocalDate.of(2025, 1, 2);
+    private Task task;
+
+    @Setup
+    public void setup() {
+        task = new Task("t1", date, "Math", 1.5, "Practice problems", false);
+    }
+
+    @Benchmark
+    public Task construct() {
+        return new Task("t1", date, "Math", 1.5, "Practice problems", false);
+    }
+
+    @Benchmark
+    public Task withDate() {
+        return task.withDate(other);
+    }
+
+    @Benchmark
+    public Object constructAndBind() {
+        // what a visible ListView row pays: the lazily created properties
+        return new Task("t1", date, "Math", 1.5, "Practice problems", false).titleProperty();
+    }
+}
@@ -0,0 +1,54 @@
+package com.services;
+
+import com.model.Subject;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * generateLocalPlan over growing subject counts and date ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalPlanBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int subjects;
+
+    @Param({"14", "90", "365"})
+    public int days;
+
+    private List<Subject> subjectList;
+    private LocalDate start;
+    private LocalDate end;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        start = LocalDate.of(2025, 1, 1);
+        end = start.plusDays(days - 1);
+        subjectList = new ArrayList<>(subjects);
+        for (int i = 0; i < subjects; i++) {
+            LocalDate exam = rnd.nextInt(4) == 0 ? null : start.plusDays(1 + rnd.nextInt(days));
+            subjectList.add(new Subject("Subject" + i, 1 + rnd.nextInt(5), 5 + rnd.nextInt(80), exam));
+        }
+    }
+
+    @Benchmark
+    public String generateLocalPlan() {
+        return AIService.generateLocalPlan(subjectList, 6.0, start, end);
+    }
+
+    @Benchmark
+    public LocalScheduler.Result schedule() {
+        return LocalScheduler.schedule(subjectList, 6.0, start, end);
+    }
+}
@@ -0,0 +1,41 @@
+package com.services;
+
+import com.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * parseTasksFromText over plans of growing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int lines;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder(lines * 48);
+        LocalDate d = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < lines; i++) {
+            sb.append(d.plusDays(i / 4)).append(" | Subject").append(i % 12)
+              .append(" | ").append(0.5 + (i % 6) * 0.5).append(" | Practice problems\n");
+        }
+        text = sb.toString();
+    }
+
+    @Benchmark
+    public List<Task> parseTasksFromText() {
+        return AIService.parseTasksFromText(text);
+    }
+}
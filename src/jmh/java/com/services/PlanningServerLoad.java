@@ -0,0 +1,114 @@
+package com.services;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Load test for PlanningServer: keeps a fixed number of requests in flight
+ * (async client, so thousands of concurrent clients need no threads) and
+ * reports p50/p90/p99/max latency, throughput and the status mix (429s show
+ * the backpressure working, -1 client-side errors). Not a JMH benchmark; run
+ * it as a main (javafx-base is on the classpath for Task):
+ *
+ *   mvn -Pbench compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/classes:$(cat target/cp.txt) com.services.PlanningServerLoad [clients] [requests] [url]
+ *
+ * Without a url an embedded server is started with the planner.server.*
+ * settings. Requests ask for local plans, so no model is involved.
+ */
+public class PlanningServerLoad {
+
+    private static final String BODY = "{\"local\":true,\"dailyHours\":4,\"subjects\":["
+        + "{\"name\":\"Math\",\"difficulty\":4,\"targetHours\":30},"
+        + "{\"name\":\"Physics\",\"difficulty\":3,\"targetHours\":20},"
+        + "{\"name\":\"History\",\"difficulty\":2,\"targetHours\":12}]}";
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        PlanningServer embedded = null;
+        String url;
+        if (args.length > 2) {
+            url = args[2];
+        } else {
+            embedded = PlanningServer.fromSystemProperties(0, null).start();
+            url = "http://localhost:" + embedded.port() + "/plans";
+        }
+
+        HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(BODY))
+            .build();
+
+        // warm up the server and client code paths
+        run(http, request, Math.min(clients, 64), Math.min(requests, 2000), new AtomicLongArray(requests),
+            new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+        AtomicLongArray latencies = new AtomicLongArray(requests);
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+        long t0 = System.nanoTime();
+        run(http, request, clients, requests, latencies, statuses, errors);
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        long[] ok = new long[requests];
+        int n = 0;
+        for (int i = 0; i < requests; i++) {
+            if (latencies.get(i) > 0) ok[n++] = latencies.get(i);
+        }
+        long[] sorted = Arrays.copyOf(ok, n);
+        Arrays.sort(sorted);
+        System.out.printf("%d requests, %d in flight, %.2fs: %.0f req/s%n", requests, clients, secs, requests / secs);
+        System.out.println("status " + new TreeMap<>(statuses) + (errors.isEmpty() ? "" : ", errors " + errors));
+        if (n > 0) {
+            System.out.printf("200 latency ms: p50 %.2f  p90 %.2f  p99 %.2f  max %.2f%n",
+                pct(sorted, 50), pct(sorted, 90), pct(sorted, 99), sorted[n - 1] / 1e6);
+        }
+        if (embedded != null) embedded.stop();
+    }
+
+    // Keeps `clients` requests in flight until `requests` have completed; records 200 latencies
+    private static void run(HttpClient http, HttpRequest request, int clients, int requests,
+                            AtomicLongArray latencies, Map<Integer, AtomicInteger> statuses,
+                            Map<String, AtomicInteger> errors) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(clients);
+        CompletableFuture<?>[] all = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int slot = i;
+            long start = System.nanoTime();
+            all[i] = http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((resp, ex) -> {
+                    inFlight.release();
+                    int status = ex != null ? -1 : resp.statusCode();
+                    if (ex != null) {
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        errors.computeIfAbsent(cause.getClass().getSimpleName(), k -> new AtomicInteger()).incrementAndGet();
+                    }
+                    statuses.computeIfAbsent(status, k -> new AtomicInteger()).incrementAndGet();
+                    if (status == 200) latencies.set(slot, System.nanoTime() - start);
+                });
+        }
+        CompletableFuture.allOf(all).handle((v, ex) -> null).join();
+    }
+
+    private static double pct(long[] sorted, int p) {
+        int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, i)] / 1e6;
+    }
+}
@@ -0,0 +1,50 @@
+package com.services;
+
+import com.model.Subject;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request building: buildPrompt and jsonString.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptBenchmark {
+
+    @Param({"5", "50"})
+    public int subjects;
+
+    private List<Subject> subjectList;
+    private LocalDate start;
+    private LocalDate end;
+    private String prompt;
+
+    @Setup
+    public void setup() {
+        start = LocalDate.of(2025, 1, 1);
+        end = start.plusWeeks(8);
+        subjectList = new ArrayList<>(subjects);
+        for (int i = 0; i < subjects; i++) {
+            subjectList.add(new Subject("Subject \"" + i + "\"", 1 + i % 5, 20, start.plusDays(7 + i)));
+        }
+        prompt = AIService.buildPrompt(subjectList, 4.0, start, end);
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return AIService.buildPrompt(subjectList, 4.0, start, end);
+    }
+
+    @Benchmark
+    public String jsonString() {
+        return AIService.jsonString(prompt);
+    }
+}
@@ -0,0 +1,94 @@
+package com.studyplannerfx;
+
+import com.model.Task;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scrolling a 50k-row day list: each frame re-targets a viewport's worth of
+ * cells at the next rows, the way VirtualFlow reuses cells. TaskCell against
+ * the old cell that bound a String.format binding per updateItem (run with
+ * -prof gc to see the allocation difference). Needs a display for the toolkit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskCellScrollBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final int VISIBLE = 30;
+    private static final int ROWS_PER_FRAME = 3;
+
+    @Param({"taskCell", "binding"})
+    public String cell;
+
+    private final List<Task> rows = new ArrayList<>(ROWS);
+    private final List<ListCell<Task>> cells = new ArrayList<>(VISIBLE);
+    private int top;
+
+    @Setup
+    public void setup() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException alreadyStarted) {
+            // fine, another benchmark started it
+        }
+        LocalDate d = LocalDate.of(2025, 1, 6);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Task(Integer.toString(i), d.plusWeeks(i / 8), "Subject" + (i % 12),
+                0.5 + (i % 6) * 0.5, "Practice problems", i % 3 == 0));
+        }
+        for (int i = 0; i < VISIBLE; i++) {
+            cells.add("binding".equals(cell) ? new BindingCell() : new TaskCell((t, done) -> { }));
+        }
+    }
+
+    /** One scroll frame; cells are off-scene, so no FX thread is needed. */
+    @Benchmark
+    public int scrollFrame() {
+        top = (top + ROWS_PER_FRAME) % (ROWS - VISIBLE);
+        for (int i = 0; i < VISIBLE; i++) {
+            update(cells.get(i), rows.get(top + i));
+        }
+        return top;
+    }
+
+    private static void update(ListCell<Task> c, Task t) {
+        if (c instanceof TaskCell tc) tc.updateItem(t, false);
+        else ((BindingCell) c).updateItem(t, false);
+    }
+
+    // The previous DashboardView cell, kept as the baseline
+    static final class BindingCell extends ListCell<Task> {
+        private final CheckBox check = new CheckBox();
+        private final Label label = new Label();
+        private final HBox box = new HBox(8, check, label);
+
+        @Override
+        protected void updateItem(Task item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setGraphic(null);
+            } else {
+                check.setSelected(item.isDone());
+                label.textProperty().bind(Bindings.createStringBinding(
+                    () -> String.format("[%s] %s • %.1fh", item.getSubject(), item.getTitle(), item.getHours()),
+                    item.doneProperty(), item.titleProperty(), item.hoursProperty()));
+                setGraphic(box);
+            }
+        }
+    }
+}
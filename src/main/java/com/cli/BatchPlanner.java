@@ -0,0 +1,150 @@
+package com.cli;
+
+import com.model.Subject;
+import com.services.AIService;
+import com.util.Metrics;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Headless batch mode: plans many students in parallel without JavaFX.
+ *
+ * Input (one subject per line, lines of a student kept together, '#' comments):
+ *   studentId | Subject | difficulty | targetHours | YYYY-MM-DD or -
+ * Output (streamed as each student finishes, in completion order):
+ *   studentId | YYYY-MM-DD | Subject | hours | title
+ *
+ * Usage:
+ *   java -cp study-planner.jar com.cli.BatchPlanner [--in file] [--out file]
+ *        [--hours 3.0] [--threads N] [--remote]
+ * stdin/stdout are used when --in/--out are omitted. --remote calls the
+ * Hugging Face model (HF_TOKEN) and falls back to the local planner like the app.
+ * Throughput is reported on stderr.
+ */
+public class BatchPlanner {
+
+    private static final Pattern BAR = Pattern.compile("\\|");
+
+    public static void main(String[] args) throws Exception {
+        Metrics.startFromProperties();
+        Path in = null;
+        Path out = null;
+        double hours = 3.0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean remote = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--in" -> in = Path.of(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                case "--hours" -> hours = Double.parseDouble(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--remote" -> remote = true;
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: BatchPlanner [--in file] [--out file] [--hours h] [--threads n] [--remote]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        Map<String, List<Subject>> students;
+        try (BufferedReader r = in == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(in, StandardCharsets.UTF_8)) {
+            students = readStudents(r);
+        }
+
+        try (Writer w = out == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            run(students, hours, threads, remote, w);
+        }
+    }
+
+    static Map<String, List<Subject>> readStudents(BufferedReader r) throws IOException {
+        Map<String, List<Subject>> students = new LinkedHashMap<>();
+        String line;
+        int n = 0;
+        while ((line = r.readLine()) != null) {
+            n++;
+            String t = line.trim();
+            if (t.isEmpty() || t.startsWith("#")) continue;
+            String[] p = BAR.split(t);
+            if (p.length < 5) {
+                System.err.println("line " + n + ": expected 5 fields, skipped");
+                continue;
+            }
+            try {
+                String exam = p[4].trim();
+                Subject s = new Subject(p[1].trim(), Integer.parseInt(p[2].trim()),
+                    Double.parseDouble(p[3].trim()), exam.equals("-") ? null : LocalDate.parse(exam));
+                students.computeIfAbsent(p[0].trim(), k -> new ArrayList<>()).add(s);
+            } catch (RuntimeException e) {
+                System.err.println("line " + n + ": " + e.getMessage() + ", skipped");
+            }
+        }
+        return students;
+    }
+
+    static void run(Map<String, List<Subject>> students, double hours, int threads, boolean remote, Writer w)
+            throws InterruptedException {
+        String token = System.getenv("HF_TOKEN");
+        AtomicLong lines = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long t0 = System.nanoTime();
+        try {
+            List<ForkJoinTask<?>> jobs = new ArrayList<>(students.size());
+            for (Map.Entry<String, List<Subject>> e : students.entrySet()) {
+                jobs.add(pool.submit(() -> {
+                    try {
+                        String plan = remote
+                            ? AIService.generatePlanFromHF(token, e.getValue(), hours)
+                            : AIService.generateLocalPlan(e.getValue(), hours);
+                        String block = prefix(e.getKey(), plan, lines);
+                        synchronized (w) {
+                            w.write(block);
+                        }
+                    } catch (Exception ex) {
+                        failed.incrementAndGet();
+                        System.err.println(e.getKey() + ": " + ex.getMessage());
+                    }
+                }));
+            }
+            for (ForkJoinTask<?> j : jobs) j.join();
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        int ok = students.size() - (int) failed.get();
+        System.err.printf("Planned %d students (%d failed), %d lines in %.3fs: %.0f students/s, %.0f lines/s%n",
+            ok, failed.get(), lines.get(), secs, ok / secs, lines.get() / secs);
+    }
+
+    // Prefixes every plan line with the student id
+    private static String prefix(String id, String plan, AtomicLong lines) {
+        StringBuilder sb = new StringBuilder(plan.length() + 64);
+        int start = 0;
+        int n = 0;
+        for (int i = 0; i <= plan.length(); i++) {
+            if (i == plan.length() || plan.charAt(i) == '\n') {
+                if (i > start) {
+                    sb.append(id).append(" | ").append(plan, start, i).append('\n');
+                    n++;
+                }
+                start = i + 1;
+            }
+        }
+        lines.addAndGet(n);
+        return sb.toString();
+    }
+}
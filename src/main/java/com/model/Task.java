@@ -1,46 +1,172 @@
 package com.model;
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.*;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Frontend task model with simple properties for binding.
+ * Frontend task model.
+ * Values are kept in plain fields (epoch day, float hours); the JavaFX
+ * properties used for binding are only created the first time one is asked
+ * for, i.e. for tasks actually shown in a cell. Everything else stays compact.
+ *
+ * A Task is itself Observable: listeners hear about any change to its values,
+ * without the properties being created. The display label is cached and only
+ * rebuilt after a change (see getVersion).
  */
-public class Task {
-    private final StringProperty id = new SimpleStringProperty();
-    private final ObjectProperty<java.time.LocalDate> date = new SimpleObjectProperty<>();
-    private final StringProperty subject = new SimpleStringProperty();
-    private final DoubleProperty hours = new SimpleDoubleProperty();
-    private final StringProperty title = new SimpleStringProperty();
-    private final BooleanProperty done = new SimpleBooleanProperty(false);
+public class Task implements Observable {
+    private final String id;
+    private int epochDay;
+    private String subject;
+    private float hours;
+    private String title;
+    private boolean done;
+
+    private Props props; // created on first xxxProperty() call
+    private Object listeners; // null, one InvalidationListener, or a List of them
+    private int version;
+    private String label;
+
+    private final class Props {
+        final StringProperty id = new SimpleStringProperty(Task.this, "id", Task.this.id);
+        final ObjectProperty<LocalDate> date = new SimpleObjectProperty<>(Task.this, "date", LocalDate.ofEpochDay(epochDay));
+        final StringProperty subject = new SimpleStringProperty(Task.this, "subject", Task.this.subject);
+        final DoubleProperty hours = new SimpleDoubleProperty(Task.this, "hours", widen(Task.this.hours));
+        final StringProperty title = new SimpleStringProperty(Task.this, "title", Task.this.title);
+        final BooleanProperty done = new SimpleBooleanProperty(Task.this, "done", Task.this.done);
+
+        {
+            InvalidationListener changed = o -> changed();
+            date.addListener(changed);
+            subject.addListener(changed);
+            hours.addListener(changed);
+            title.addListener(changed);
+            done.addListener(changed);
+        }
+    }
+
+    public Task(String id, LocalDate date, String subject, double hours, String title, boolean done) {
+        this(id, (int) date.toEpochDay(), subject, (float) hours, title, done);
+    }
+
+    public Task(String id, int epochDay, String subject, float hours, String title, boolean done) {
+        this.id = id;
+        this.epochDay = epochDay;
+        this.subject = subject;
+        this.hours = hours;
+        this.title = title;
+        this.done = done;
+    }
+
+    private Props props() {
+        if (props == null) props = new Props();
+        return props;
+    }
+
+    public String getId() { return id; }
+    public StringProperty idProperty() { return props().id; }
 
-    public Task(String id, java.time.LocalDate date, String subject, double hours, String title, boolean done) {
-        this.id.set(id);
-        this.date.set(date);
-        this.subject.set(subject);
-        this.hours.set(hours);
-        this.title.set(title);
-        this.done.set(done);
+    public LocalDate getDate() { return props == null ? LocalDate.ofEpochDay(epochDay) : props.date.get(); }
+    public int getEpochDay() { return props == null ? epochDay : (int) props.date.get().toEpochDay(); }
+    public DayOfWeek getDayOfWeek() { return DayOfWeek.of(Math.floorMod(getEpochDay() + 3, 7) + 1); }
+    public ObjectProperty<LocalDate> dateProperty() { return props().date; }
+    public Task withDate(LocalDate d) {
+        return new Task(id, (int) d.toEpochDay(), getSubject(), (float) getHours(), getTitle(), isDone());
     }
 
-    public String getId() { return id.get(); }
-    public StringProperty idProperty() { return id; }
+    public String getSubject() { return props == null ? subject : props.subject.get(); }
+    public StringProperty subjectProperty() { return props().subject; }
 
-    public java.time.LocalDate getDate() { return date.get(); }
-    public ObjectProperty<java.time.LocalDate> dateProperty() { return date; }
-    public Task withDate(java.time.LocalDate d) {
-        return new Task(getId(), d, getSubject(), getHours(), getTitle(), isDone());
+    public double getHours() { return props == null ? widen(hours) : props.hours.get(); }
+    public DoubleProperty hoursProperty() { return props().hours; }
+    public Task withHours(double h) {
+        return new Task(id, getEpochDay(), getSubject(), (float) h, getTitle(), isDone());
     }
 
-    public String getSubject() { return subject.get(); }
-    public StringProperty subjectProperty() { return subject; }
+    public String getTitle() { return props == null ? title : props.title.get(); }
+    public StringProperty titleProperty() { return props().title; }
 
-    public double getHours() { return hours.get(); }
-    public DoubleProperty hoursProperty() { return hours; }
+    public boolean isDone() { return props == null ? done : props.done.get(); }
+    public BooleanProperty doneProperty() { return props().done; }
+    public void setDone(boolean v) {
+        if (props != null) {
+            props.done.set(v);
+        } else if (done != v) {
+            done = v;
+            changed();
+        }
+    }
+
+    /** The current values in a new task with no properties or listeners, for reading on another thread. */
+    public Task copy() {
+        return new Task(id, getEpochDay(), getSubject(), (float) getHours(), getTitle(), isDone());
+    }
+
+    /** "[Subject] title • 1.5h", built once per version. */
+    public String getLabel() {
+        String l = label;
+        if (l == null) {
+            String subj = getSubject(), t = getTitle();
+            StringBuilder sb = new StringBuilder(subj.length() + t.length() + 12);
+            sb.append('[').append(subj).append("] ").append(t).append(" • ");
+            long tenths = Math.round(getHours() * 10);
+            if (tenths < 0) {
+                sb.append('-');
+                tenths = -tenths;
+            }
+            sb.append(tenths / 10).append('.').append(tenths % 10).append('h');
+            label = l = sb.toString();
+        }
+        return l;
+    }
+
+    // float -> double without the binary noise: 1.2f reads back as 1.2, not 1.2000000476837158
+    private static double widen(float h) {
+        return Math.round(h * 10000d) / 10000d;
+    }
+
+    /** Bumped on every change to the task's values. */
+    public int getVersion() { return version; }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void addListener(InvalidationListener listener) {
+        if (listeners == null) {
+            listeners = listener;
+        } else if (listeners instanceof List) {
+            ((List<InvalidationListener>) listeners).add(listener);
+        } else {
+            List<InvalidationListener> list = new ArrayList<>(2);
+            list.add((InvalidationListener) listeners);
+            list.add(listener);
+            listeners = list;
+        }
+    }
 
-    public String getTitle() { return title.get(); }
-    public StringProperty titleProperty() { return title; }
+    @Override
+    @SuppressWarnings("unchecked")
+    public void removeListener(InvalidationListener listener) {
+        if (listeners == listener) {
+            listeners = null;
+        } else if (listeners instanceof List) {
+            ((List<InvalidationListener>) listeners).remove(listener);
+        }
+    }
 
-    public boolean isDone() { return done.get(); }
-    public BooleanProperty doneProperty() { return done; }
-    public void setDone(boolean v) { done.set(v); }
-}
\ No newline at end of file
+    @SuppressWarnings("unchecked")
+    private void changed() {
+        version++;
+        label = null;
+        Object ls = listeners;
+        if (ls instanceof InvalidationListener l) {
+            l.invalidated(this);
+        } else if (ls != null) {
+            for (InvalidationListener l : List.copyOf((List<InvalidationListener>) ls)) l.invalidated(this);
+        }
+    }
+}
@@ -2,69 +2,193 @@ package com.services;
 
 import com.model.Subject;
 import com.model.Task;
+import com.util.Hours;
+import com.util.Metrics;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
 
 /**
- * Minimal Hugging Face call using Java 11+ HttpClient.
+ * Plan generation: builds the prompt, calls a ModelClient (Hugging Face by
+ * default, see HuggingFaceClient) and parses the reply.
  * We avoid extra JSON libs by:
- * 1) Extracting "generated_text" with a simple regex (the API returns [{ "generated_text": "..." }])
+ * 1) Pulling "generated_text" out of the response stream with a small JsonReader (the API returns [{ "generated_text": "..." }])
  * 2) Asking the model to output a very strict plain-text format we can parse.
  *
  * Output format (one task per line):
  * YYYY-MM-DD | Subject | hours | title
  * Example:
  * 2025-08-10 | Math | 1.5 | Practice calculus set
+ *
+ * streamPlanFromHF asks for server-sent token events instead and hands each
+ * completed line to a PlanParser while the response is still arriving.
+ *
+ * Successful model output is cached (see PlanCache), so asking again with the
+ * same subjects, hours and dates skips the remote call.
  */
 public class AIService {
 
-    private static final HttpClient http = HttpClient.newHttpClient();
-    // Using a more accessible model that works with the API key
-    private static final String MODEL = "moonshotai/Kimi-K2-Instruct";
-
-    public static String generatePlanFromHF(String apiKey, List<Subject> subjects, double dailyHours) throws Exception {
-        LocalDate today = LocalDate.now();
-        LocalDate lastExam = subjects.stream()
-            .map(Subject::getExamDate)
-            .filter(Objects::nonNull)
-            .max(LocalDate::compareTo)
-            .orElse(today.plusWeeks(2));
+    private static final PlanCache cache = new PlanCache(32, PlanCache.defaultDir());
+    // One client per API key so each keeps its own circuit breaker; see setModelClient to plug in another backend
+    private static final Map<String, ModelClient> clients = new ConcurrentHashMap<>();
+    private static volatile ModelClient override;
+    private static final Metrics.Timer PROMPT = Metrics.timer("prompt.build");
+    private static final Metrics.Counter FALLBACKS = Metrics.counter("fallback.local");
+    private static final Logger LOG = Logger.getLogger(AIService.class.getName());
+    // Long ranges are asked for a week at a time, this many weeks at once
+    private static final WindowedPlanner windows = new WindowedPlanner(Integer.getInteger("planner.model.parallelWindows", 4));
 
-        String prompt = buildPrompt(subjects, dailyHours, today, lastExam);
+    /** Routes all generations to the given backend (null restores the Hugging Face default). */
+    public static void setModelClient(ModelClient client) {
+        override = client;
+    }
 
-        String body = "{"
-            + "\"inputs\": " + jsonString(prompt) + ","
-            + "\"parameters\": {\"max_new_tokens\": 600, \"temperature\": 0.2}"
-            + "}";
+    static ModelClient client(String apiKey) {
+        ModelClient c = override;
+        if (c != null) return c;
+        return clients.computeIfAbsent(apiKey == null ? "" : apiKey, HuggingFaceClient::fromSystemProperties);
+    }
 
-        HttpRequest req = HttpRequest.newBuilder()
-            .uri(URI.create("https://api-inference.huggingface.co/models/" + MODEL))
-            .header("Authorization", "Bearer " + apiKey)
-            .header("Content-Type", "application/json")
-            .POST(HttpRequest.BodyPublishers.ofString(body))
-            .build();
+    public static String generatePlanFromHF(String apiKey, List<Subject> subjects, double dailyHours) throws Exception {
+        LocalDate today = LocalDate.now();
+        LocalDate lastExam = lastExamOf(subjects, today);
 
-        HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
-        if (resp.statusCode() >= 400) {
+        String text;
+        try {
+            text = remotePlan(apiKey, subjects, dailyHours, today, lastExam);
+        } catch (ModelClient.ModelUnavailableException e) {
             // Fallback to local AI generation for interview demo
-            System.out.println("API returned " + resp.statusCode() + ", using local AI fallback");
+            LOG.info(e.getMessage() + ", using local AI fallback");
+            FALLBACKS.inc();
+            return generateLocalPlan(subjects, dailyHours, today, lastExam);
+        }
+        if (text == null) {
+            FALLBACKS.inc();
             return generateLocalPlan(subjects, dailyHours, today, lastExam);
         }
-        String text = extractGeneratedText(resp.body());
-        if (text == null || text.isBlank()) {
+        PlanRepair.Result fixed = PlanRepair.repair(parseTasksFromText(text), subjects, dailyHours, today, lastExam);
+        if (fixed.tasks().isEmpty()) {
+            LOG.info("Model plan had no usable tasks, using local AI fallback");
+            FALLBACKS.inc();
             return generateLocalPlan(subjects, dailyHours, today, lastExam);
         }
+        if (fixed.report().isClean()) return text;
+        LOG.info("Model plan repaired: " + fixed.report());
+        return planText(fixed.tasks());
+    }
+
+    /**
+     * The model's plan text (cached if seen before), or null if it returned nothing; no local fallback.
+     * Ranges longer than a week are planned window by window (see WindowedPlanner).
+     */
+    static String remotePlan(String apiKey, List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end)
+            throws IOException, InterruptedException {
+        if (WindowedPlanner.spansWindows(start, end)) {
+            return windows.plan(apiKey, subjects, dailyHours, start, end);
+        }
+        ModelClient model = client(apiKey);
+        String key = PlanCache.key(model.name(), subjects, dailyHours, start, end);
+        String cached = cache.get(key);
+        if (cached != null) return cached;
+
+        String text = model.generate(buildPrompt(subjects, dailyHours, start, end));
+        if (text == null || text.isBlank()) return null;
+        cache.put(key, text);
         return text;
     }
 
-    private static String buildPrompt(List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end) {
+    /**
+     * Streaming variant of generatePlanFromHF. Tasks are pushed to the sink
+     * (on the calling thread) as soon as each plan line is complete and has
+     * passed PlanRepair. Falls back to the local plan when the model is
+     * unavailable or no line survives; if the stream breaks off after some
+     * tasks, the local planner fills in the hours it did not get to.
+     * Returns the number of tasks emitted.
+     */
+    public static int streamPlanFromHF(String apiKey, List<Subject> subjects, double dailyHours, Consumer<Task> sink) throws Exception {
+        LocalDate today = LocalDate.now();
+        LocalDate lastExam = lastExamOf(subjects, today);
+
+        // Each line is checked and repaired as it arrives; only what survives reaches the sink
+        PlanRepair repair = new PlanRepair(subjects, dailyHours, today, lastExam);
+        List<Task> emitted = new ArrayList<>();
+        PlanParser parser = new PlanParser(t -> {
+            Task fixed = repair.accept(t);
+            if (fixed != null) {
+                emitted.add(fixed);
+                sink.accept(fixed);
+            }
+        });
+        ModelClient model = client(apiKey);
+        String key = PlanCache.key(model.name(), subjects, dailyHours, today, lastExam);
+        String cached = cache.get(key);
+        if (cached != null) {
+            parser.parse(cached);
+            return repair.report().output();
+        }
+
+        if (WindowedPlanner.spansWindows(today, lastExam)) {
+            // One long stream would be cut off at max_new_tokens; the windows come back whole and in parallel
+            String text;
+            try {
+                text = windows.plan(apiKey, subjects, dailyHours, today, lastExam);
+            } catch (ModelClient.ModelUnavailableException e) {
+                LOG.info(e.getMessage() + ", using local AI fallback");
+                text = null;
+            }
+            if (text == null) FALLBACKS.inc();
+            parser.parse(text != null ? text : generateLocalPlan(subjects, dailyHours, today, lastExam));
+            return repair.report().output();
+        }
+
+        String prompt = buildPrompt(subjects, dailyHours, today, lastExam);
+        StringBuilder received = new StringBuilder();
+        boolean complete = true;
+        try {
+            model.stream(prompt, chunk -> {
+                received.append(chunk);
+                parser.feed(chunk);
+            });
+        } catch (ModelClient.ModelUnavailableException e) {
+            LOG.info(e.getMessage() + ", using local AI fallback");
+            complete = false;
+        }
+        parser.finish();
+        if (!repair.report().isClean()) LOG.info("Model plan repaired: " + repair.report());
+        if (repair.report().output() > 0) {
+            if (complete) {
+                cache.put(key, received.toString());
+                return repair.report().output();
+            }
+            // cut off part way: the rest of the range comes from the local planner
+            FALLBACKS.inc();
+            PlanParser local = new PlanParser(sink);
+            local.parse(topUpPlan(subjects, dailyHours, today, lastExam, emitted));
+            LOG.info("Model stream broke off after " + emitted.size() + " tasks, " + local.accepted() + " planned locally");
+            return emitted.size() + local.accepted();
+        }
+        // the local plan needs no repair
+        FALLBACKS.inc();
+        PlanParser local = new PlanParser(sink);
+        local.parse(generateLocalPlan(subjects, dailyHours, today, lastExam));
+        return local.accepted();
+    }
+
+    static LocalDate lastExamOf(List<Subject> subjects, LocalDate today) {
+        return subjects.stream()
+            .map(Subject::getExamDate)
+            .filter(Objects::nonNull)
+            .max(LocalDate::compareTo)
+            .orElse(today.plusWeeks(2));
+    }
+
+    static String buildPrompt(List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end) {
+        long t0 = PROMPT.start();
         StringBuilder sb = new StringBuilder();
         sb.append("You are a study planning assistant.\n");
         sb.append("Create a daily plan from ").append(start).append(" to ").append(end).append(".\n");
@@ -79,98 +203,90 @@ public class AIService {
               .append(", targetHours ").append(s.getTargetHours()).append(", exam ")
               .append(s.getExamDate() == null ? "none" : s.getExamDate()).append(")\n");
         }
-        return sb.toString();
+        String prompt = sb.toString();
+        PROMPT.stop(t0);
+        return prompt;
     }
 
-    // Very small helper to build JSON string literal
-    private static String jsonString(String s) {
-        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    // JSON string literal with full escaping
+    static String jsonString(String s) {
+        return JsonWriter.quote(s);
     }
 
-    // Extract "generated_text": "..." from the HF array response using regex
-    private static String extractGeneratedText(String body) {
-        // Handles escaped content until the closing quote, minimally
-        Pattern p = Pattern.compile("\\\"generated_text\\\"\\s*:\\s*\\\"(.*?)\\\"", Pattern.DOTALL);
-        Matcher m = p.matcher(body);
-        if (m.find()) {
-            String raw = m.group(1);
-            // unescape newlines and quotes
-            return raw.replace("\\n", "\n").replace("\\\"", "\"");
-        }
-        // Some models return the text directly; fallback to body
-        return body;
+    /** Local plan from today to the last exam; needs no network and no JavaFX. */
+    public static String generateLocalPlan(List<Subject> subjects, double dailyHours) {
+        LocalDate today = LocalDate.now();
+        return generateLocalPlan(subjects, dailyHours, today, lastExamOf(subjects, today));
     }
 
     // Local AI fallback for interview demo - generates intelligent study plans
-    private static String generateLocalPlan(List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end) {
-        StringBuilder plan = new StringBuilder();
-        LocalDate current = start;
-        
-        // Sort subjects by priority (difficulty + exam proximity)
-        List<Subject> sortedSubjects = new ArrayList<>(subjects);
-        sortedSubjects.sort((a, b) -> {
-            int diff = Integer.compare(b.getDifficulty(), a.getDifficulty());
-            if (diff != 0) return diff;
-            if (a.getExamDate() == null && b.getExamDate() == null) return 0;
-            if (a.getExamDate() == null) return 1;
-            if (b.getExamDate() == null) return -1;
-            return a.getExamDate().compareTo(b.getExamDate());
-        });
+    static String generateLocalPlan(List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end) {
+        // Deadline-aware heap scheduler; tracks remaining hours per subject
+        LocalScheduler.Result result = LocalScheduler.schedule(subjects, dailyHours, start, end);
+        StringBuilder plan = new StringBuilder(result.blocks().size() * 48);
+        for (LocalScheduler.Block b : result.blocks()) {
+            appendBlock(plan, b);
+        }
+        return plan.toString();
+    }
 
-        while (!current.isAfter(end)) {
-            double remainingHours = dailyHours;
-            for (Subject subject : sortedSubjects) {
-                if (remainingHours <= 0) break;
-                
-                // Calculate hours for this subject based on priority and remaining time
-                double subjectHours = Math.min(remainingHours, Math.min(3.0, subject.getTargetHours() / 7.0));
-                if (subjectHours >= 0.5) {
-                    plan.append(String.format("%s | %s | %.1f | %s\n", 
-                        current, subject.getName(), subjectHours, 
-                        getTaskTitle(subject, subjectHours)));
-                    remainingHours -= subjectHours;
-                }
-            }
-            current = current.plusDays(1);
+    // Local plan for what `have` leaves open: each subject's missing hours, in the room left on each day
+    static String topUpPlan(List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end, List<Task> have) {
+        Map<Integer, Long> perDay = new HashMap<>();      // hundredths
+        Map<String, Long> perSubject = new HashMap<>();
+        for (Task t : have) {
+            long h = Math.round(t.getHours() * 100);
+            perDay.merge(t.getEpochDay(), h, Long::sum);
+            perSubject.merge(t.getSubject(), h, Long::sum);
+        }
+        List<Subject> rest = new ArrayList<>(subjects.size());
+        for (Subject s : subjects) {
+            double gap = s.getTargetHours() - perSubject.getOrDefault(s.getName(), 0L) / 100.0;
+            if (gap > 0) rest.add(new Subject(s.getName(), s.getDifficulty(), gap, s.getExamDate()));
+        }
+        LocalScheduler.Result result = LocalScheduler.schedule(rest,
+            day -> dailyHours - perDay.getOrDefault((int) day, 0L) / 100.0, start, end);
+        StringBuilder plan = new StringBuilder(result.blocks().size() * 48);
+        for (LocalScheduler.Block b : result.blocks()) {
+            appendBlock(plan, b);
         }
-        
         return plan.toString();
     }
 
-    private static String getTaskTitle(Subject subject, double hours) {
-        String[] tasks = {
-            "Review key concepts", "Practice problems", "Read textbook chapter", 
-            "Complete assignments", "Study notes", "Practice exercises", 
-            "Review past material", "Prepare for exam", "Group study session"
-        };
-        return tasks[(int)(Math.random() * tasks.length)];
+    static void appendBlock(StringBuilder plan, LocalScheduler.Block b) {
+        plan.append(b.date()).append(" | ")
+            .append(b.subject().getName()).append(" | ")
+            .append(b.hours()).append(" | ")
+            .append(getTaskTitle(b.subject(), b.hours())).append('\n');
     }
 
+    /** Tasks back to plan text, one "date | subject | hours | title" line each. */
+    static String planText(List<Task> tasks) {
+        StringBuilder plan = new StringBuilder(tasks.size() * 48);
+        for (Task t : tasks) {
+            plan.append(t.getDate()).append(" | ")
+                .append(t.getSubject()).append(" | ");
+            Hours.append(plan, t.getHours()).append(" | ")
+                .append(t.getTitle()).append('\n');
+        }
+        return plan.toString();
+    }
+
+    private static final String[] TASK_TITLES = {
+        "Review key concepts", "Practice problems", "Read textbook chapter",
+        "Complete assignments", "Study notes", "Practice exercises",
+        "Review past material", "Prepare for exam", "Group study session"
+    };
+
+    static String getTaskTitle(Subject subject, double hours) {
+        return TASK_TITLES[ThreadLocalRandom.current().nextInt(TASK_TITLES.length)];
+    }
+
+    /** Every line that parses; empty if none does (callers fall back to the local plan). See PlanRepair for checks. */
     public static List<Task> parseTasksFromText(String text) {
         List<Task> out = new ArrayList<>();
-        String[] lines = text.split("\\r?\\n");
-        int n = 0;
-        for (String line : lines) {
-            String trimmed = line.trim();
-            if (trimmed.isEmpty()) continue;
-            // Expect: 2025-08-10 | Math | 1.5 | Practice calculus set
-            String[] parts = trimmed.split("\\|");
-            if (parts.length < 4) continue;
-            try {
-                LocalDate date = LocalDate.parse(parts[0].trim());
-                String subject = parts[1].trim();
-                double hours = Double.parseDouble(parts[2].trim());
-                String title = parts[3].trim();
-                out.add(new Task(UUID.randomUUID().toString(), date, subject, hours, title, false));
-                n++;
-            } catch (Exception ignored) {}
-        }
-        if (out.isEmpty()) {
-            // minimal fallback: if model didn't comply, generate a tiny local plan for coming 7 days
-            LocalDate start = LocalDate.now();
-            out.add(new Task(UUID.randomUUID().toString(), start, "General Study", 1.5, "Review notes", false));
-            out.add(new Task(UUID.randomUUID().toString(), start.plusDays(1), "General Study", 1.5, "Practice problems", false));
-        }
+        // Expect: 2025-08-10 | Math | 1.5 | Practice calculus set
+        new PlanParser(out::add).parse(text);
         return out;
     }
 }
\ No newline at end of file
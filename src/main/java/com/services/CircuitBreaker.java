@@ -0,0 +1,52 @@
+package com.services;
+
+/**
+ * Consecutive-failure circuit breaker.
+ * After `threshold` failures in a row the circuit opens and calls are refused
+ * for `openMillis`; then one trial call is let through (half-open). A success
+ * closes it again, a failure re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int threshold;
+    private final long openMillis;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    public CircuitBreaker(int threshold, long openMillis) {
+        this.threshold = threshold;
+        this.openMillis = openMillis;
+    }
+
+    /** True if a call may proceed now. */
+    public synchronized boolean allow() {
+        if (state == State.CLOSED) return true;
+        // OPEN: wait out the window. HALF_OPEN: one trial is out; allow another
+        // only if that one never reported back within the window.
+        long now = System.currentTimeMillis();
+        if (now - openedAt < openMillis) return false;
+        state = State.HALF_OPEN;
+        openedAt = now;
+        return true;
+    }
+
+    public synchronized void success() {
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void failure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= threshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
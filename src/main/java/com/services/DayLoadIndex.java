@@ -0,0 +1,202 @@
+package com.services;
+
+import com.model.Task;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Hours planned per day, kept in Fenwick trees over epoch days (one for the
+ * whole plan, one per subject), so a task change is an O(log n) update and
+ * the hours of any day, week or date range are an O(log n) prefix-sum query.
+ * Hours are summed as whole hundredths, so adding and removing tasks never
+ * drifts. A tree covers at most MAX_SPAN days densely; days outside that
+ * window (e.g. a stray far-future date in a restored plan) are kept in a
+ * sorted map instead, so one outlier can't size every tree to decades.
+ *
+ * Days over the daily limit are tracked as the plan changes (a sorted set,
+ * updated only for the days a change touches) and reported through
+ * setOnOverloadChange. Follows a TaskRepository like ProgressTracker does.
+ */
+public class DayLoadIndex {
+
+    /** Days one tree covers with arrays (about 11 years; 64 KB per array). */
+    static final int MAX_SPAN = 1 << 12;
+
+    private final Tree total = new Tree();
+    private final Map<String, Tree> bySubject = new HashMap<>();
+    private final NavigableSet<Integer> overloaded = new TreeSet<>();
+    private long limit; // hundredths
+    private Consumer<LocalDate> onOverloadChange;
+
+    public DayLoadIndex(TaskRepository repo, double dailyHours) {
+        limit = hundredths(dailyHours);
+        for (Task t : repo.all()) apply(t, 1);
+        repo.addListener((removed, added) -> {
+            for (Task t : removed) apply(t, -1);
+            for (Task t : added) apply(t, 1);
+        });
+    }
+
+    /** Called (on the FX thread) with each day that becomes or stops being overloaded. */
+    public void setOnOverloadChange(Consumer<LocalDate> onOverloadChange) {
+        this.onOverloadChange = onOverloadChange;
+    }
+
+    public double getDailyLimit() {
+        return limit / 100.0;
+    }
+
+    /** Changes the limit and re-flags every planned day (one pass over the plan's date span). */
+    public void setDailyLimit(double hours) {
+        long l = hundredths(hours);
+        if (l == limit) return;
+        limit = l;
+        Set<Integer> was = new HashSet<>(overloaded);
+        overloaded.clear();
+        for (int i = 0; i < total.values.length; i++) {
+            if (total.values[i] > limit) overloaded.add(total.origin + i);
+        }
+        total.outliers.forEach((day, h) -> {
+            if (h > limit) overloaded.add(day);
+        });
+        if (onOverloadChange == null) return;
+        for (int day : was) {
+            if (!overloaded.contains(day)) onOverloadChange.accept(LocalDate.ofEpochDay(day));
+        }
+        for (int day : overloaded) {
+            if (!was.contains(day)) onOverloadChange.accept(LocalDate.ofEpochDay(day));
+        }
+    }
+
+    public double day(LocalDate date) {
+        return total.get((int) date.toEpochDay()) / 100.0;
+    }
+
+    /** Hours from..to inclusive. */
+    public double range(LocalDate from, LocalDate to) {
+        return total.sum((int) from.toEpochDay(), (int) to.toEpochDay()) / 100.0;
+    }
+
+    /** Hours in the Monday-to-Sunday week containing the date. */
+    public double week(LocalDate anyDay) {
+        int monday = (int) anyDay.toEpochDay() - (anyDay.getDayOfWeek().getValue() - 1);
+        return total.sum(monday, monday + 6) / 100.0;
+    }
+
+    /** Hours of one subject from..to inclusive. */
+    public double subject(String subject, LocalDate from, LocalDate to) {
+        Tree t = bySubject.get(subject);
+        return t == null ? 0.0 : t.sum((int) from.toEpochDay(), (int) to.toEpochDay()) / 100.0;
+    }
+
+    /** Hours on the date as a fraction of the daily limit (1.0 = full). */
+    public double fill(LocalDate date) {
+        return limit == 0 ? 0.0 : (double) total.get((int) date.toEpochDay()) / limit;
+    }
+
+    public boolean isOverloaded(LocalDate date) {
+        return overloaded.contains((int) date.toEpochDay());
+    }
+
+    /** Overloaded days from..to inclusive, in date order. */
+    public List<LocalDate> overloadedDays(LocalDate from, LocalDate to) {
+        List<LocalDate> out = new ArrayList<>();
+        if (from.isAfter(to)) return out;
+        for (int day : overloaded.subSet((int) from.toEpochDay(), true, (int) to.toEpochDay(), true)) {
+            out.add(LocalDate.ofEpochDay(day));
+        }
+        return out;
+    }
+
+    private void apply(Task t, int sign) {
+        int day = t.getEpochDay();
+        long h = sign * hundredths(t.getHours());
+        total.add(day, h, sign);
+        Tree s = bySubject.computeIfAbsent(t.getSubject(), k -> new Tree());
+        s.add(day, h, sign);
+        if (s.count == 0) bySubject.remove(t.getSubject());
+
+        boolean over = total.get(day) > limit;
+        boolean changed = over ? overloaded.add(day) : overloaded.remove(day);
+        if (changed && onOverloadChange != null) onOverloadChange.accept(LocalDate.ofEpochDay(day));
+    }
+
+    private static long hundredths(double hours) {
+        return Math.round(hours * 100);
+    }
+
+    /**
+     * Fenwick tree over a window of epoch days that grows (and re-centres) as
+     * needed, up to MAX_SPAN days; days that don't fit go to a sorted map.
+     */
+    private static final class Tree {
+        int origin;                     // epoch day of values[0]
+        long[] values = new long[0];    // per-day sums, for O(1) point reads and rebuilds
+        long[] tree = new long[1];      // 1-based Fenwick array
+        final NavigableMap<Integer, Long> outliers = new TreeMap<>(); // days outside the window
+        int count;                      // tasks currently summed in
+
+        void add(int day, long delta, int tasks) {
+            count += tasks;
+            if (!ensure(day)) {
+                if (outliers.merge(day, delta, Long::sum) == 0) outliers.remove(day);
+                return;
+            }
+            int i = day - origin;
+            values[i] += delta;
+            for (i++; i < tree.length; i += i & -i) tree[i] += delta;
+        }
+
+        long get(int day) {
+            int i = day - origin;
+            if (i >= 0 && i < values.length) return values[i];
+            return outliers.isEmpty() ? 0 : outliers.getOrDefault(day, 0L);
+        }
+
+        long sum(int from, int to) {
+            if (from > to) return 0;
+            long s = prefix(to) - prefix(from - 1);
+            if (!outliers.isEmpty()) {
+                for (long h : outliers.subMap(from, true, to, true).values()) s += h;
+            }
+            return s;
+        }
+
+        // Sum of the window's days up to and including day
+        private long prefix(int day) {
+            long i = Math.min((long) day - origin + 1, values.length);
+            long s = 0;
+            for (; i > 0; i -= i & -i) s += tree[(int) i];
+            return s;
+        }
+
+        // Makes the window cover day if that keeps it within MAX_SPAN; false if it can't
+        private boolean ensure(int day) {
+            int n = values.length;
+            if (n > 0 && day >= origin && day < origin + n) return true;
+            int from = n == 0 ? day : Math.min(origin, day);
+            int to = n == 0 ? day : Math.max(origin + n - 1, day);
+            if ((long) to - from + 1 > MAX_SPAN) return false;
+            int size = Math.min(MAX_SPAN, Math.max(Math.max(64, n * 2), to - from + 1));
+            int newOrigin = from - (size - (to - from + 1)) / 2; // slack on both sides
+            long[] v = new long[size];
+            if (n > 0) System.arraycopy(values, 0, v, origin - newOrigin, n);
+            // outliers the wider window now covers move into it
+            Map<Integer, Long> inside = outliers.subMap(newOrigin, true, newOrigin + size - 1, true);
+            inside.forEach((d, h) -> v[d - newOrigin] += h);
+            inside.clear();
+            origin = newOrigin;
+            values = v;
+            // linear-time build: each node pushes its sum to its parent
+            tree = new long[size + 1];
+            for (int i = 1; i <= size; i++) {
+                tree[i] += v[i - 1];
+                int parent = i + (i & -i);
+                if (parent <= size) tree[parent] += tree[i];
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import com.util.Metrics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Runs plan generations off the FX thread on a small bounded pool.
+ * - Only one generation is current; starting a different one cancels it
+ *   and anything it still emits is dropped.
+ * - Asking again for the same inputs while one is in flight joins it
+ *   (already emitted tasks are replayed to the new sink).
+ * - cancel() aborts the current generation, including a blocked HTTP read.
+ * - generateHedged() shows the local plan at once and races the model
+ *   against a deadline.
+ */
+public class GenerationService {
+
+    private static final class Generation {
+        final String key;
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        final List<Task> emitted = new ArrayList<>();
+        final List<Consumer<Task>> sinks = new ArrayList<>();
+        volatile Future<?> worker;
+
+        Generation(String key) {
+            this.key = key;
+        }
+
+        synchronized void emit(Task t) {
+            if (result.isDone()) throw new CancellationException("generation superseded");
+            emitted.add(t);
+            for (Consumer<Task> s : sinks) s.accept(t);
+        }
+
+        synchronized void join(Consumer<Task> sink) {
+            for (Task t : emitted) sink.accept(t);
+            sinks.add(sink);
+        }
+    }
+
+    private static final Metrics.Counter REMOTE_WINS = Metrics.counter("hedge.remoteWins");
+    private static final Metrics.Counter LOCAL_KEPT = Metrics.counter("hedge.localKept");
+    private static final Metrics.Counter DEADLINE_MISSED = Metrics.counter("hedge.deadlineMissed");
+    private static final Logger LOG = Logger.getLogger(GenerationService.class.getName());
+
+    private final ExecutorService pool;
+    private Generation current;
+
+    public GenerationService(int maxConcurrent) {
+        AtomicInteger n = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(maxConcurrent, r -> {
+            Thread t = new Thread(r, "plan-generation-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts (or joins) a streaming generation. Tasks go to the sink on a worker
+     * thread; the future completes with the number of tasks emitted, or is
+     * cancelled when superseded.
+     */
+    public synchronized CompletableFuture<Integer> generate(String apiKey, List<Subject> subjects, double dailyHours,
+                                                            Consumer<Task> sink) {
+        String key = PlanCache.key("", subjects, dailyHours, null, null);
+        if (current != null && !current.result.isDone() && current.key.equals(key)) {
+            current.join(sink);
+            return current.result;
+        }
+        cancel();
+
+        Generation g = new Generation(key);
+        g.join(sink);
+        current = g;
+        List<Subject> subs = List.copyOf(subjects);
+        start(g, () -> {
+            try {
+                g.result.complete(AIService.streamPlanFromHF(apiKey, subs, dailyHours, g::emit));
+            } catch (Throwable ex) {
+                g.result.completeExceptionally(ex);
+            }
+        });
+        return g.result;
+    }
+
+    /**
+     * Latency-budgeted generation. The local plan is built on the pool and goes
+     * to onPlan first, then the model is asked. Its plan goes to onPlan as a
+     * replacement, after PlanRepair, only if it arrives within deadlineMillis
+     * of the local plan and has usable tasks; otherwise the request is
+     * abandoned. onPlan is called on a worker thread.
+     * The future completes with the size of the swapped-in plan, or 0 if the
+     * local plan was kept; cancel() stops both steps.
+     */
+    public synchronized CompletableFuture<Integer> generateHedged(String apiKey, List<Subject> subjects, double dailyHours,
+                                                                  long deadlineMillis, Consumer<List<Task>> onPlan) {
+        cancel();
+        List<Subject> subs = List.copyOf(subjects);
+        LocalDate start = LocalDate.now();
+        LocalDate end = AIService.lastExamOf(subs, start);
+
+        Generation g = new Generation("hedged");
+        current = g;
+        start(g, () -> {
+            try {
+                List<Task> local = new ArrayList<>();
+                try {
+                    new PlanParser(local::add).parse(AIService.generateLocalPlan(subs, dailyHours, start, end));
+                } catch (RuntimeException ex) {
+                    g.result.completeExceptionally(ex); // nothing to show, so not a model failure
+                    return;
+                }
+                synchronized (g) {
+                    if (g.result.isDone()) return;
+                    onPlan.accept(local);
+                }
+                CompletableFuture.delayedExecutor(deadlineMillis, TimeUnit.MILLISECONDS).execute(() -> {
+                    synchronized (g) {
+                        if (!g.result.complete(0)) return;
+                    }
+                    LOG.info("Model missed the " + deadlineMillis + "ms deadline, keeping local plan");
+                    DEADLINE_MISSED.inc();
+                    LOCAL_KEPT.inc();
+                    g.worker.cancel(true);
+                });
+
+                String text = AIService.remotePlan(apiKey, subs, dailyHours, start, end);
+                List<Task> parsed = new ArrayList<>();
+                if (text != null) new PlanParser(parsed::add).parse(text);
+                PlanRepair.Result fixed = PlanRepair.repair(parsed, subs, dailyHours, start, end);
+                List<Task> remote = fixed.tasks();
+                if (remote.isEmpty()) {
+                    LOG.info("Model plan had no usable tasks, keeping local plan");
+                    LOCAL_KEPT.inc();
+                    g.result.complete(0);
+                    return;
+                }
+                if (!fixed.report().isClean()) LOG.info("Model plan repaired: " + fixed.report());
+                synchronized (g) {
+                    if (g.result.isDone()) return;
+                    onPlan.accept(remote);
+                    g.result.complete(remote.size());
+                    REMOTE_WINS.inc();
+                }
+            } catch (InterruptedException ex) {
+                g.result.cancel(false);
+            } catch (Exception ex) {
+                if (!g.result.isDone()) {
+                    LOG.info(ex.getMessage() + ", keeping local plan");
+                    LOCAL_KEPT.inc();
+                }
+                g.result.complete(0);
+            } catch (Throwable ex) {
+                g.result.completeExceptionally(ex);
+            }
+        });
+        return g.result;
+    }
+
+    // g.worker is set before the task can run, so the task (and its deadline timer) can always cancel it
+    private void start(Generation g, Runnable work) {
+        FutureTask<Void> task = new FutureTask<>(work, null);
+        g.worker = task;
+        pool.execute(task);
+    }
+
+    /** Cancels the current generation, if any. */
+    public synchronized void cancel() {
+        Generation g = current;
+        current = null;
+        if (g == null) return;
+        g.result.cancel(false);
+        Future<?> w = g.worker;
+        if (w != null) w.cancel(true);
+    }
+
+    public void shutdown() {
+        cancel();
+        pool.shutdownNow();
+    }
+}
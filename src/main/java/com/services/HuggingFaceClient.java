@@ -0,0 +1,346 @@
+package com.services;
+
+import com.util.Metrics;
+
+import java.io.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Hugging Face text-generation endpoint (or anything speaking its protocol,
+ * e.g. MockModelServer).
+ * - One shared HttpClient (HTTP/2 preferred, so connections are reused and multiplexed)
+ * - Connect and request timeouts; the request timeout covers the response
+ *   headers, and the body then has the same time again to arrive
+ * - Exponential backoff with full jitter on 429/503 and connect timeouts,
+ *   honouring Retry-After (seconds or an HTTP date)
+ * - A circuit breaker that fails fast while the endpoint keeps failing
+ *
+ * Settings come from system properties (see fromSystemProperties).
+ */
+public class HuggingFaceClient implements ModelClient {
+
+    private static final HttpClient SHARED = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(Duration.ofMillis(Long.getLong("planner.model.connectTimeoutMs", 5_000)))
+        .build();
+
+    // Closes response bodies that are still open at their deadline
+    private static final ScheduledThreadPoolExecutor DEADLINES = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "model-body-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        DEADLINES.setRemoveOnCancelPolicy(true);
+    }
+
+    // Request bodies are built into one reused buffer per thread
+    private static final ThreadLocal<StringBuilder> BODY = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    private static final Metrics.Timer LATENCY = Metrics.timer("http.latency");
+    private static final Metrics.Counter BYTES = Metrics.counter("http.bytes");
+    private static final Metrics.Counter RETRIES = Metrics.counter("http.retries");
+    private static final Metrics.Counter FAILURES = Metrics.counter("http.failures");
+    private static final Metrics.Counter CIRCUIT_OPEN = Metrics.counter("http.circuitOpen");
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final String model;
+    private final String apiKey;
+    private final Duration requestTimeout;
+    private final int maxRetries;
+    private final long backoffMillis;
+    private final CircuitBreaker breaker;
+
+    public HuggingFaceClient(HttpClient http, String baseUrl, String model, String apiKey,
+                             Duration requestTimeout, int maxRetries, long backoffMillis, CircuitBreaker breaker) {
+        this.http = http;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.model = model;
+        this.apiKey = apiKey;
+        this.requestTimeout = requestTimeout;
+        this.maxRetries = maxRetries;
+        this.backoffMillis = backoffMillis;
+        this.breaker = breaker;
+    }
+
+    /**
+     * planner.hf.url (endpoint base), planner.model, planner.model.requestTimeoutMs,
+     * planner.model.connectTimeoutMs, planner.model.retries, planner.model.backoffMs.
+     */
+    public static HuggingFaceClient fromSystemProperties(String apiKey) {
+        return new HuggingFaceClient(SHARED,
+            System.getProperty("planner.hf.url", "https://api-inference.huggingface.co/models/"),
+            System.getProperty("planner.model", "moonshotai/Kimi-K2-Instruct"),
+            apiKey,
+            Duration.ofMillis(Long.getLong("planner.model.requestTimeoutMs", 60_000)),
+            Integer.getInteger("planner.model.retries", 3),
+            Long.getLong("planner.model.backoffMs", 500),
+            new CircuitBreaker(3, 30_000));
+    }
+
+    @Override
+    public String name() {
+        return baseUrl + model;
+    }
+
+    public CircuitBreaker breaker() {
+        return breaker;
+    }
+
+    @Override
+    public String generate(String prompt) throws IOException, InterruptedException {
+        HttpResponse<InputStream> resp = send(request(prompt, false), HttpResponse.BodyHandlers.ofInputStream());
+        Body body = new Body(resp.body());
+        try (body) {
+            String text = extractGeneratedText(new InputStreamReader(body, StandardCharsets.UTF_8));
+            breaker.success();
+            return text;
+        } catch (IOException e) {
+            throw bodyFailed(body, e);
+        }
+    }
+
+    @Override
+    public void stream(String prompt, Consumer<String> chunks) throws IOException, InterruptedException {
+        HttpResponse<InputStream> resp = send(request(prompt, true), HttpResponse.BodyHandlers.ofInputStream());
+        Body body = new Body(resp.body());
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            // Endpoints without streaming support answer with a plain JSON body instead of events
+            StringBuilder plain = null;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.startsWith("data:")) {
+                    String token = extractTokenText(line);
+                    if (token != null) chunks.accept(token);
+                } else if (!line.isEmpty() && !line.startsWith(":")) {
+                    if (plain == null) plain = new StringBuilder();
+                    plain.append(line).append('\n');
+                }
+            }
+            if (plain != null) {
+                String text = extractGeneratedText(new StringReader(plain.toString()));
+                if (text != null) chunks.accept(text);
+            }
+            breaker.success();
+        } catch (IOException e) {
+            throw bodyFailed(body, e);
+        }
+    }
+
+    // A body that stalled past its deadline or broke off counts against the endpoint like a failed request
+    private ModelUnavailableException bodyFailed(Body body, IOException e) {
+        FAILURES.inc();
+        breaker.failure();
+        if (body.timedOut) {
+            return new ModelUnavailableException("response body not received within " + requestTimeout.toMillis() + "ms", e);
+        }
+        return new ModelUnavailableException("reading response failed: " + e, e);
+    }
+
+    // Sends with retry/backoff behind the circuit breaker; returns a 2xx/3xx response whose body
+    // the caller reads (and then records success or failure)
+    private <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        if (!breaker.allow()) {
+            CIRCUIT_OPEN.inc();
+            throw new ModelUnavailableException("circuit open for " + name());
+        }
+        for (int attempt = 0; ; attempt++) {
+            long retryAfter = -1;
+            String failure = "connect timeout";
+            HttpResponse<T> resp = null;
+            long t0 = LATENCY.start();
+            try {
+                resp = http.send(req, handler);
+            } catch (HttpConnectTimeoutException e) {
+                // retried below
+            } catch (HttpTimeoutException e) {
+                FAILURES.inc();
+                breaker.failure();
+                throw new ModelUnavailableException("request timed out after " + requestTimeout.toMillis() + "ms", e);
+            } catch (IOException e) {
+                FAILURES.inc();
+                breaker.failure();
+                throw new ModelUnavailableException("request failed: " + e, e);
+            }
+            LATENCY.stop(t0);
+            if (resp != null) {
+                int status = resp.statusCode();
+                if (status < 400) return resp;
+                discard(resp);
+                failure = "API returned " + status;
+                if (status != 429 && status != 503) {
+                    FAILURES.inc();
+                    breaker.failure();
+                    throw new ModelUnavailableException(failure);
+                }
+                retryAfter = retryAfterSeconds(resp.headers());
+            }
+            if (attempt >= maxRetries) {
+                FAILURES.inc();
+                breaker.failure();
+                throw new ModelUnavailableException(failure + " after " + (attempt + 1) + " attempts");
+            }
+            // full jitter: sleep uniformly in [0, base * 2^attempt], or what the server asked for
+            long cap = backoffMillis << Math.min(attempt, 10);
+            long sleep = retryAfter >= 0 ? Math.min(retryAfter, 10) * 1000 : ThreadLocalRandom.current().nextLong(cap + 1);
+            Thread.sleep(sleep);
+            RETRIES.inc();
+        }
+    }
+
+    /** Retry-After in seconds, from delta-seconds or an HTTP date; -1 if absent or unreadable. */
+    static long retryAfterSeconds(HttpHeaders headers) {
+        String value = headers.firstValue("Retry-After").orElse("").trim();
+        if (value.isEmpty()) return -1;
+        try {
+            long seconds = Long.parseLong(value);
+            return seconds >= 0 ? seconds : -1;
+        } catch (NumberFormatException notSeconds) {
+            // try the date form
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(Instant.now(), at.toInstant()).getSeconds());
+        } catch (DateTimeParseException ignored) {
+            return -1;
+        }
+    }
+
+    // Counts response bytes as they are read, and closes the stream if it is still open
+    // requestTimeout after the headers arrived, which fails a read blocked on a stalled body
+    private final class Body extends FilterInputStream {
+        private final ScheduledFuture<?> deadline;
+        volatile boolean timedOut;
+
+        Body(InputStream in) {
+            super(in);
+            deadline = DEADLINES.schedule(this::expire, requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private void expire() {
+            timedOut = true;
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // the reader fails either way
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            deadline.cancel(false);
+            super.close();
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) BYTES.inc();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) BYTES.add(n);
+            return n;
+        }
+    }
+
+    private static void discard(HttpResponse<?> resp) {
+        Object body = resp.body();
+        try {
+            if (body instanceof Closeable c) c.close();
+            else if (body instanceof Stream<?> s) s.close();
+        } catch (IOException ignored) {
+            // nothing left to release
+        }
+    }
+
+    private HttpRequest request(String prompt, boolean stream) {
+        StringBuilder buf = BODY.get();
+        buf.setLength(0);
+        JsonWriter json = new JsonWriter(buf).beginObject()
+            .name("inputs").value(prompt)
+            .name("parameters").beginObject()
+                .name("max_new_tokens").value(600)
+                .name("temperature").value(0.2)
+            .endObject();
+        if (stream) json.name("stream").value(true);
+        String body = json.endObject().buffer().toString();
+
+        return HttpRequest.newBuilder()
+            .uri(URI.create(baseUrl + model))
+            .timeout(requestTimeout)
+            .header("Authorization", "Bearer " + apiKey)
+            .header("Content-Type", "application/json")
+            .header("Accept", stream ? "text/event-stream" : "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    // Extract "generated_text" from the HF array response without buffering the body
+    static String extractGeneratedText(Reader body) throws IOException {
+        // peek at the first significant character, however much whitespace comes before it
+        PushbackReader in = new PushbackReader(body, 1);
+        int c;
+        do c = in.read(); while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        if (c == -1) return "";
+        in.unread(c);
+        if (c == '[' || c == '{') {
+            return new JsonReader(in).findString("generated_text");
+        }
+        // Some models return the text directly
+        StringBuilder sb = new StringBuilder();
+        char[] chunk = new char[4096];
+        int n;
+        while ((n = in.read(chunk)) != -1) sb.append(chunk, 0, n);
+        return sb.toString();
+    }
+
+    // Pull token.text out of one server-sent event: data:{"token":{"text":"...","special":false},...}
+    static String extractTokenText(String event) throws IOException {
+        JsonReader json = JsonReader.of(event.substring("data:".length()));
+        if (json.peek() != JsonReader.Token.BEGIN_OBJECT) return null;
+        json.next();
+        while (json.peek() == JsonReader.Token.NAME) {
+            if (!json.nextName().equals("token") || json.peek() != JsonReader.Token.BEGIN_OBJECT) {
+                json.skipValue();
+                continue;
+            }
+            json.next();
+            String text = null;
+            boolean special = false;
+            while (json.peek() == JsonReader.Token.NAME) {
+                switch (json.nextName()) {
+                    case "text" -> text = json.nextString();
+                    case "special" -> special = json.nextBoolean();
+                    default -> json.skipValue();
+                }
+            }
+            return special ? null : text;
+        }
+        return null;
+    }
+}
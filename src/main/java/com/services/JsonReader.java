@@ -0,0 +1,236 @@
+package com.services;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Small pull tokenizer for JSON, read straight from a Reader/InputStream
+ * through a fixed buffer (no body String is built). Handles the full escape
+ * set including \\uXXXX. Commas and colons are consumed between tokens; a
+ * string followed by ':' is reported as a NAME.
+ *
+ * Only what the model responses need: no number conversion beyond the raw
+ * text, and no strict validation of structure.
+ */
+public class JsonReader implements Closeable {
+
+    public enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END }
+
+    private final Reader in;
+    private final char[] buf = new char[4096];
+    private int pos;
+    private int limit;
+    private final StringBuilder text = new StringBuilder(64);
+    private Token peeked;
+    private boolean bool;
+
+    public JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    public JsonReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    public static JsonReader of(CharSequence s) {
+        return new JsonReader(new StringReader(s.toString()));
+    }
+
+    public Token peek() throws IOException {
+        if (peeked == null) peeked = read();
+        return peeked;
+    }
+
+    public Token next() throws IOException {
+        Token t = peek();
+        peeked = null;
+        return t;
+    }
+
+    /** Raw text of the last NAME/STRING/NUMBER token. */
+    public String value() {
+        return text.toString();
+    }
+
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return value();
+    }
+
+    public String nextString() throws IOException {
+        Token t = next();
+        if (t == Token.NULL) return null;
+        if (t != Token.STRING && t != Token.NUMBER) throw error("expected string but was " + t);
+        return value();
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        return bool;
+    }
+
+    public void expect(Token want) throws IOException {
+        Token t = next();
+        if (t != want) throw error("expected " + want + " but was " + t);
+    }
+
+    /** Skips the next value, including nested objects/arrays. */
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            switch (next()) {
+                case BEGIN_OBJECT, BEGIN_ARRAY -> depth++;
+                case END_OBJECT, END_ARRAY -> depth--;
+                case END -> { return; }
+                default -> { }
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Scans forward (any depth) to the first "name": "string" pair and returns
+     * the decoded string, or null when the input ends first.
+     */
+    public String findString(String name) throws IOException {
+        Token t;
+        while ((t = next()) != Token.END) {
+            if (t == Token.NAME && name.contentEquals(text) && peek() == Token.STRING) {
+                next();
+                return value();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // --- scanning ---
+
+    private Token read() throws IOException {
+        int c = skipSeparators();
+        switch (c) {
+            case -1: return Token.END;
+            case '{': return Token.BEGIN_OBJECT;
+            case '}': return Token.END_OBJECT;
+            case '[': return Token.BEGIN_ARRAY;
+            case ']': return Token.END_ARRAY;
+            case '"': {
+                readString();
+                int n = skipWhitespace();
+                if (n == ':') {
+                    pos++;
+                    return Token.NAME;
+                }
+                return Token.STRING;
+            }
+            case 't': literal("rue"); bool = true; return Token.BOOLEAN;
+            case 'f': literal("alse"); bool = false; return Token.BOOLEAN;
+            case 'n': literal("ull"); return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber((char) c);
+                    return Token.NUMBER;
+                }
+                throw error("unexpected character '" + (char) c + "'");
+        }
+    }
+
+    // Returns and consumes the next char that isn't whitespace, ',' or ':'
+    private int skipSeparators() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) return -1;
+            char c = buf[pos++];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r' && c != ',' && c != ':') return c;
+        }
+    }
+
+    // Returns (without consuming) the next non-whitespace char
+    private int skipWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) return -1;
+            char c = buf[pos];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') return c;
+            pos++;
+        }
+    }
+
+    private void readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            // copy runs of plain chars in one go
+            int start = pos;
+            while (pos < limit) {
+                char c = buf[pos];
+                if (c == '"' || c == '\\') break;
+                pos++;
+            }
+            text.append(buf, start, pos - start);
+            if (pos == limit) {
+                if (!fill()) throw error("unterminated string");
+                continue;
+            }
+            char c = buf[pos++];
+            if (c == '"') return;
+            char e = nextChar();
+            switch (e) {
+                case '"', '\\', '/' -> text.append(e);
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'u' -> {
+                    int v = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int d = Character.digit(nextChar(), 16);
+                        if (d < 0) throw error("bad \\u escape");
+                        v = (v << 4) | d;
+                    }
+                    text.append((char) v);
+                }
+                default -> throw error("bad escape \\" + e);
+            }
+        }
+    }
+
+    private void readNumber(char first) throws IOException {
+        text.setLength(0);
+        text.append(first);
+        while (true) {
+            if (pos == limit && !fill()) return;
+            char c = buf[pos];
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                text.append(c);
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void literal(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (nextChar() != rest.charAt(i)) throw error("bad literal");
+        }
+    }
+
+    private char nextChar() throws IOException {
+        if (pos == limit && !fill()) throw error("unexpected end of input");
+        return buf[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) return false;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private IOException error(String msg) {
+        return new IOException("Malformed JSON: " + msg);
+    }
+}
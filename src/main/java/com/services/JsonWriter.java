@@ -0,0 +1,131 @@
+package com.services;
+
+/**
+ * Minimal JSON writer that appends to a caller-owned StringBuilder, so the
+ * same buffer can be reused for every request body. Commas are inserted
+ * automatically; strings are escaped per RFC 8259 (quotes, backslash and all
+ * control characters), plus U+2028/U+2029 for safety. NaN and infinities,
+ * which JSON can't represent, are written as null. Nesting is limited to
+ * MAX_DEPTH levels.
+ */
+public class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Deepest nesting the writer tracks (one bit per level in a long). */
+    public static final int MAX_DEPTH = 63;
+
+    private final StringBuilder out;
+    private long first = 1; // bit per nesting level: no element written yet
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(StringBuilder out) {
+        this.out = out;
+    }
+
+    public StringBuilder buffer() {
+        return out;
+    }
+
+    public JsonWriter beginObject() { return open('{'); }
+    public JsonWriter endObject() { return close('}'); }
+    public JsonWriter beginArray() { return open('['); }
+    public JsonWriter endArray() { return close(']'); }
+
+    public JsonWriter name(String name) {
+        separator();
+        quote(name, out);
+        out.append(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(CharSequence s) {
+        separator();
+        if (s == null) out.append("null");
+        else quote(s, out);
+        return this;
+    }
+
+    public JsonWriter value(double d) {
+        separator();
+        if (!Double.isFinite(d)) out.append("null");
+        else if (d == Math.rint(d) && Math.abs(d) < 1e15) out.append((long) d);
+        else out.append(d);
+        return this;
+    }
+
+    public JsonWriter value(long v) {
+        separator();
+        out.append(v);
+        return this;
+    }
+
+    public JsonWriter value(boolean b) {
+        separator();
+        out.append(b);
+        return this;
+    }
+
+    /** JSON string literal for s, quotes included. */
+    public static String quote(CharSequence s) {
+        StringBuilder sb = new StringBuilder(s.length() + 16);
+        quote(s, sb);
+        return sb.toString();
+    }
+
+    public static void quote(CharSequence s, StringBuilder out) {
+        out.append('"');
+        int len = s.length();
+        int run = 0;
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            String esc = null;
+            if (c == '"') esc = "\\\"";
+            else if (c == '\\') esc = "\\\\";
+            else if (c >= 0x20 && c != '\u2028' && c != '\u2029') continue;
+            else if (c == '\n') esc = "\\n";
+            else if (c == '\r') esc = "\\r";
+            else if (c == '\t') esc = "\\t";
+            else if (c == '\b') esc = "\\b";
+            else if (c == '\f') esc = "\\f";
+            out.append(s, run, i);
+            if (esc != null) {
+                out.append(esc);
+            } else {
+                out.append("\\u").append(HEX[(c >> 12) & 0xF]).append(HEX[(c >> 8) & 0xF])
+                   .append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+            }
+            run = i + 1;
+        }
+        out.append(s, run, len).append('"');
+    }
+
+    private JsonWriter open(char c) {
+        if (depth == MAX_DEPTH) throw new IllegalStateException("JSON nested deeper than " + MAX_DEPTH + " levels");
+        separator();
+        out.append(c);
+        depth++;
+        first |= 1L << depth;
+        return this;
+    }
+
+    private JsonWriter close(char c) {
+        if (depth == 0) throw new IllegalStateException("unbalanced " + c);
+        out.append(c);
+        first &= ~(1L << depth);
+        depth--;
+        return this;
+    }
+
+    private void separator() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        long bit = 1L << depth;
+        if ((first & bit) != 0) first &= ~bit;
+        else out.append(',');
+    }
+}
@@ -0,0 +1,142 @@
+package com.services;
+
+import com.model.Subject;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * Deadline-aware local planner (no remote model).
+ *
+ * Subjects sit in a min-heap ordered by their last study day (the day before
+ * the exam, or the end of the plan), ties going to the harder subject. Each day
+ * the most urgent subjects are popped and given a block sized to their pace
+ * (remaining hours / days left), and spare capacity is then topped up in the
+ * same order. Blocks are 0.5 to 3 hours and each subject's remaining hours are
+ * tracked, so nothing is scheduled past its exam.
+ *
+ * A day pops at most dailyHours / 0.5 subjects, so a plan costs
+ * O(days * log subjects).
+ */
+public class LocalScheduler {
+
+    public static final double MIN_BLOCK = 0.5;
+    public static final double MAX_BLOCK = 3.0;
+
+    /** One scheduled study block. */
+    public record Block(LocalDate date, Subject subject, double hours) {}
+
+    /** Scheduled blocks in date order plus hours that could not fit before a deadline. */
+    public record Result(List<Block> blocks, Map<String, Double> unscheduled) {}
+
+    private static final class Slot {
+        final Subject subject;
+        final long deadline; // epoch day of the last day we may study
+        double remaining;
+        double today;
+
+        Slot(Subject subject, long deadline, double remaining) {
+            this.subject = subject;
+            this.deadline = deadline;
+            this.remaining = remaining;
+        }
+    }
+
+    private static final Comparator<Slot> URGENCY = Comparator
+        .<Slot>comparingLong(s -> s.deadline)
+        .thenComparing(Comparator.comparingInt((Slot s) -> s.subject.getDifficulty()).reversed())
+        .thenComparing(Comparator.comparingDouble((Slot s) -> s.remaining).reversed());
+
+    public static Result schedule(List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end) {
+        return schedule(subjects, day -> dailyHours, start, end);
+    }
+
+    /** Same, with a per-day capacity (hours free on each epoch day), e.g. around tasks already planned. */
+    public static Result schedule(List<Subject> subjects, LongToDoubleFunction capacity, LocalDate start, LocalDate end) {
+        long first = start.toEpochDay();
+        long last = end.toEpochDay();
+
+        PriorityQueue<Slot> heap = new PriorityQueue<>(Math.max(1, subjects.size()), URGENCY);
+        Map<String, Double> unscheduled = new LinkedHashMap<>();
+        for (Subject s : subjects) {
+            double need = ceilHalf(s.getTargetHours());
+            if (need <= 0) continue;
+            long deadline = last;
+            if (s.getExamDate() != null) {
+                long exam = s.getExamDate().toEpochDay();
+                if (exam < first) {
+                    unscheduled.merge(s.getName(), need, Double::sum);
+                    continue;
+                }
+                deadline = lastStudyDay(exam, first, last);
+            }
+            heap.add(new Slot(s, deadline, need));
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        List<Slot> picked = new ArrayList<>();
+        for (long day = first; day <= last && !heap.isEmpty(); day++) {
+            double free = floorHalf(capacity.applyAsDouble(day));
+            if (free < MIN_BLOCK) continue;
+            LocalDate date = LocalDate.ofEpochDay(day);
+            picked.clear();
+
+            // pass 1: most urgent first, each gets its pace
+            while (free >= MIN_BLOCK && !heap.isEmpty()) {
+                Slot s = heap.poll();
+                if (s.deadline < day) {
+                    unscheduled.merge(s.subject.getName(), s.remaining, Double::sum);
+                    continue;
+                }
+                long daysLeft = s.deadline - day + 1;
+                double pace = ceilHalf(s.remaining / daysLeft);
+                double h = Math.min(Math.min(Math.max(pace, MIN_BLOCK), MAX_BLOCK), Math.min(s.remaining, free));
+                s.today = h;
+                s.remaining -= h;
+                free -= h;
+                picked.add(s);
+            }
+            // pass 2: spend what's left on the same subjects, still most urgent first
+            for (int i = 0; i < picked.size() && free >= MIN_BLOCK; i++) {
+                Slot s = picked.get(i);
+                double extra = Math.min(Math.min(MAX_BLOCK - s.today, s.remaining), free);
+                extra = floorHalf(extra);
+                if (extra > 0) {
+                    s.today += extra;
+                    s.remaining -= extra;
+                    free -= extra;
+                }
+            }
+            for (Slot s : picked) {
+                blocks.add(new Block(date, s.subject, s.today));
+                s.today = 0;
+                if (s.remaining >= MIN_BLOCK) {
+                    if (s.deadline > day) heap.add(s);
+                    else unscheduled.merge(s.subject.getName(), s.remaining, Double::sum);
+                }
+            }
+        }
+        for (Slot s : heap) {
+            unscheduled.merge(s.subject.getName(), s.remaining, Double::sum);
+        }
+        return new Result(blocks, unscheduled);
+    }
+
+    /**
+     * Last epoch day to study for an exam on {@code exam}, for a plan over
+     * [first, last]: the day before it, or the exam day itself if that is first.
+     * The exam must not be before first.
+     */
+    static long lastStudyDay(long exam, long first, long last) {
+        return Math.min(last, Math.max(first, exam - 1));
+    }
+
+    static double ceilHalf(double h) {
+        return Math.ceil(h * 2 - 1e-9) / 2.0;
+    }
+
+    static double floorHalf(double h) {
+        return Math.floor(h * 2 + 1e-9) / 2.0;
+    }
+}
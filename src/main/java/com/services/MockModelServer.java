@@ -0,0 +1,163 @@
+package com.services;
+
+import com.model.Subject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * Local stand-in for the Hugging Face endpoint, for demos and for exercising
+ * timeouts, retries and the circuit breaker without a network or a token.
+ * Answers POST /models/{model} with a plan built by the local scheduler from
+ * the prompt, either as [{"generated_text": ...}] or as token events when
+ * "stream" is set.
+ *
+ * Run: java com.services.MockModelServer [port] [latencyMs] [failureRate]
+ * then start the app with -Dplanner.hf.url=http://localhost:8089/models/
+ */
+public class MockModelServer {
+
+    private static final Logger LOG = Logger.getLogger(MockModelServer.class.getName());
+
+    private final HttpServer server;
+    private final long latencyMillis;
+    private final double failureRate;
+
+    public MockModelServer(int port, long latencyMillis, double failureRate) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/models/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+    }
+
+    public MockModelServer start() {
+        server.start();
+        return this;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        ((java.util.concurrent.ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (!"POST".equals(ex.getRequestMethod())) {
+                ex.sendResponseHeaders(405, -1);
+                return;
+            }
+            String prompt = null;
+            boolean stream = false;
+            try (InputStream in = ex.getRequestBody()) {
+                JsonReader json = new JsonReader(in);
+                json.expect(JsonReader.Token.BEGIN_OBJECT);
+                while (json.peek() == JsonReader.Token.NAME) {
+                    switch (json.nextName()) {
+                        case "inputs" -> prompt = json.nextString();
+                        case "stream" -> stream = json.nextBoolean();
+                        default -> json.skipValue();
+                    }
+                }
+            } catch (IOException e) {
+                ex.sendResponseHeaders(400, -1);
+                return;
+            }
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                // Overloaded: what the client should back off from and retry
+                ex.getResponseHeaders().add("Retry-After", "1");
+                ex.sendResponseHeaders(503, -1);
+                return;
+            }
+            if (latencyMillis > 0) Thread.sleep(latencyMillis);
+
+            String plan = planFor(prompt == null ? "" : prompt);
+            OutputStream out = ex.getResponseBody();
+            if (stream) {
+                ex.getResponseHeaders().add("Content-Type", "text/event-stream");
+                ex.sendResponseHeaders(200, 0);
+                StringBuilder event = new StringBuilder(128);
+                // One event per line, like a token stream with long tokens
+                int from = 0;
+                while (from < plan.length()) {
+                    int to = plan.indexOf('\n', from) + 1;
+                    if (to == 0) to = plan.length();
+                    event.setLength(0);
+                    event.append("data:");
+                    new JsonWriter(event).beginObject()
+                        .name("token").beginObject()
+                            .name("text").value(plan.substring(from, to))
+                            .name("special").value(false)
+                        .endObject()
+                    .endObject();
+                    event.append("\n\n");
+                    out.write(event.toString().getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    from = to;
+                }
+            } else {
+                byte[] body = new JsonWriter(new StringBuilder(plan.length() + 32))
+                    .beginArray().beginObject().name("generated_text").value(plan).endObject().endArray()
+                    .buffer().toString().getBytes(StandardCharsets.UTF_8);
+                ex.getResponseHeaders().add("Content-Type", "application/json");
+                ex.sendResponseHeaders(200, body.length);
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Reads back what AIService.buildPrompt wrote: dates, daily hours and the subject lines
+    static String planFor(String prompt) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = today, end = today.plusWeeks(2);
+        double dailyHours = 4;
+        List<Subject> subjects = new ArrayList<>();
+        for (String line : prompt.split("\n")) {
+            try {
+                if (line.startsWith("Create a daily plan from ")) {
+                    String[] parts = line.substring(25, line.length() - 1).split(" to ");
+                    start = LocalDate.parse(parts[0]);
+                    end = LocalDate.parse(parts[1]);
+                } else if (line.startsWith("Max ")) {
+                    dailyHours = Double.parseDouble(line.substring(4, line.indexOf(' ', 4)));
+                } else if (line.startsWith("- ")) {
+                    int open = line.lastIndexOf(" (difficulty ");
+                    String[] f = line.substring(open + 13, line.length() - 1).split(", ");
+                    String exam = f[2].substring("exam ".length());
+                    subjects.add(new Subject(line.substring(2, open),
+                        Integer.parseInt(f[0]),
+                        Double.parseDouble(f[1].substring("targetHours ".length())),
+                        exam.equals("none") ? null : LocalDate.parse(exam)));
+                }
+            } catch (RuntimeException ignored) {
+                // not a prompt line we understand
+            }
+        }
+        return AIService.generateLocalPlan(subjects, dailyHours, start, end);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        long latency = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        double failures = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        MockModelServer mock = new MockModelServer(port, latency, failures).start();
+        LOG.info("Mock model server on http://localhost:" + mock.port() + "/models/");
+    }
+}
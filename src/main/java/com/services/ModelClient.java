@@ -0,0 +1,34 @@
+package com.services;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * A text-generation backend. AIService builds the prompt and parses the
+ * result; implementations only move text. Throwing ModelUnavailableException
+ * tells the caller to use the local planner instead.
+ */
+public interface ModelClient {
+
+    /** Identifies model + endpoint; part of the plan cache key. */
+    String name();
+
+    /** Full generated text, or null/blank if the model returned nothing usable. */
+    String generate(String prompt) throws IOException, InterruptedException;
+
+    /** Pushes generated text to the sink in chunks as it arrives. */
+    void stream(String prompt, Consumer<String> chunks) throws IOException, InterruptedException;
+
+    /** The endpoint can't serve this request (status, timeout, open circuit). */
+    class ModelUnavailableException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public ModelUnavailableException(String message) {
+            super(message);
+        }
+
+        public ModelUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
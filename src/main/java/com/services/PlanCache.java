@@ -0,0 +1,197 @@
+package com.services;
+
+import com.model.Subject;
+import com.util.Metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Cache of raw plan text keyed by a canonical hash of the generation inputs
+ * (subjects, daily hours and date window). Recent entries stay in an in-memory
+ * LRU; when a directory is configured every entry is also written there so
+ * plans survive restarts. The window usually starts today, so a stored plan
+ * is only found again on the day it was made. Disk problems never fail a
+ * generation, the cache just misses.
+ *
+ * The directory is kept to MAX_FILES entries, MAX_BYTES and MAX_AGE, least
+ * recently used first (a disk hit refreshes the file's modified time). It is
+ * pruned when the cache is created and then every PRUNE_EVERY writes or
+ * MAX_BYTES / 8 written, so a write doesn't list the whole directory and the
+ * limits can be overshot by that much in between.
+ */
+public class PlanCache {
+
+    static final int MAX_FILES = 256;
+    static final long MAX_BYTES = 16L << 20;
+    static final Duration MAX_AGE = Duration.ofDays(30);
+    static final int PRUNE_EVERY = 32;
+
+    private static final Metrics.Counter WRITE_FAILURES = Metrics.counter("cache.writeFailures");
+    private static final Logger LOG = Logger.getLogger(PlanCache.class.getName());
+
+    private final int capacity;
+    private final Path dir; // null = memory only
+    private final LinkedHashMap<String, String> lru;
+    private final Object pruneLock = new Object();
+    private final AtomicInteger writesSincePrune = new AtomicInteger();
+    private final AtomicLong bytesSincePrune = new AtomicLong();
+
+    public PlanCache(int capacity, Path dir) {
+        this.capacity = capacity;
+        this.dir = dir;
+        this.lru = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > PlanCache.this.capacity;
+            }
+        };
+        if (dir != null) prune();
+    }
+
+    /**
+     * Directory from -Dplanner.cache.dir (empty disables the disk tier),
+     * defaulting to ~/.study-planner/cache.
+     */
+    public static Path defaultDir() {
+        String prop = System.getProperty("planner.cache.dir");
+        if (prop == null) return Path.of(System.getProperty("user.home"), ".study-planner", "cache");
+        return prop.isBlank() ? null : Path.of(prop);
+    }
+
+    /**
+     * Canonical key: subjects are sorted so list order doesn't matter,
+     * then everything is hashed with SHA-256.
+     */
+    public static String key(String model, List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end) {
+        List<Subject> sorted = new ArrayList<>(subjects);
+        sorted.sort(Comparator.comparing(Subject::getName)
+            .thenComparingInt(Subject::getDifficulty)
+            .thenComparingDouble(Subject::getTargetHours)
+            .thenComparing(Subject::getExamDate, Comparator.nullsFirst(Comparator.naturalOrder())));
+        StringBuilder sb = new StringBuilder(64 + sorted.size() * 48);
+        sb.append(model).append('\n')
+          .append(dailyHours).append('\n')
+          .append(start).append('\n')
+          .append(end).append('\n');
+        for (Subject s : sorted) {
+            sb.append(s.getName()).append('\u0000')
+              .append(s.getDifficulty()).append('\u0000')
+              .append(s.getTargetHours()).append('\u0000')
+              .append(s.getExamDate()).append('\n');
+        }
+        return sha256(sb.toString());
+    }
+
+    public String get(String key) {
+        synchronized (lru) {
+            String hit = lru.get(key);
+            if (hit != null) return hit;
+        }
+        if (dir == null) return null;
+        try {
+            Path file = dir.resolve(key + ".plan");
+            if (!Files.isRegularFile(file)) return null;
+            String plan = Files.readString(file, StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            synchronized (lru) {
+                lru.put(key, plan);
+            }
+            return plan;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public void put(String key, String plan) {
+        synchronized (lru) {
+            lru.put(key, plan);
+        }
+        if (dir == null) return;
+        try {
+            Files.createDirectories(dir);
+            // write-then-rename so a crash never leaves a half-written entry
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            Files.writeString(tmp, plan, StandardCharsets.UTF_8);
+            Files.move(tmp, dir.resolve(key + ".plan"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            WRITE_FAILURES.inc();
+            LOG.warning("Plan cache write failed: " + e.getMessage());
+        }
+        if (writesSincePrune.incrementAndGet() >= PRUNE_EVERY
+                || bytesSincePrune.addAndGet(plan.length()) >= MAX_BYTES / 8) {
+            prune();
+        }
+    }
+
+    /**
+     * Deletes entries older than MAX_AGE, then the least recently used ones
+     * until the directory is within MAX_FILES and MAX_BYTES. Temp files left by
+     * a crash are removed once they are an hour old.
+     */
+    void prune() {
+        record Entry(Path file, long modified, long size) {}
+        synchronized (pruneLock) {
+            writesSincePrune.set(0);
+            bytesSincePrune.set(0);
+            List<Entry> entries = new ArrayList<>();
+            long now = System.currentTimeMillis();
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path f : (Iterable<Path>) files::iterator) {
+                    String name = f.getFileName().toString();
+                    BasicFileAttributes a = Files.readAttributes(f, BasicFileAttributes.class);
+                    if (!a.isRegularFile()) continue;
+                    long modified = a.lastModifiedTime().toMillis();
+                    if (name.endsWith(".tmp")) {
+                        if (now - modified > Duration.ofHours(1).toMillis()) Files.deleteIfExists(f);
+                    } else if (name.endsWith(".plan")) {
+                        entries.add(new Entry(f, modified, a.size()));
+                    }
+                }
+                entries.sort(Comparator.comparingLong(Entry::modified).reversed()); // newest first
+                long bytes = 0;
+                int kept = 0;
+                for (Entry e : entries) {
+                    if (kept < MAX_FILES && bytes + e.size() <= MAX_BYTES && now - e.modified() <= MAX_AGE.toMillis()) {
+                        kept++;
+                        bytes += e.size();
+                    } else {
+                        Files.deleteIfExists(e.file());
+                    }
+                }
+            } catch (IOException e) {
+                // missing directory or a file that vanished meanwhile: try again next time
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (lru) {
+            lru.clear();
+        }
+    }
+
+    private static String sha256(String s) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
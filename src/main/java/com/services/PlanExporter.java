@@ -0,0 +1,292 @@
+package com.services;
+
+import com.model.Task;
+import com.util.Hours;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Streams a plan to iCalendar (.ics), CSV or JSON Lines.
+ * Records are encoded straight into one 64 KB buffer (hand-rolled UTF-8, no
+ * per-task Strings) that is flushed to the channel whenever it fills, so
+ * memory stays constant whatever the plan size. Meant to run off the FX
+ * thread: the tasks must be copies nothing else changes (see Task.copy),
+ * and progress/cancellation are checked every few hundred tasks.
+ */
+public final class PlanExporter {
+
+    public enum Format {
+        ICS("ics"), CSV("csv"), JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /** Format for a file name's extension, or null if unknown. */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString();
+            String ext = name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+            for (Format f : values()) {
+                if (f.extension.equals(ext)) return f;
+            }
+            return null;
+        }
+    }
+
+    /** Export progress in tasks written so far. */
+    @FunctionalInterface
+    public interface Progress {
+        void update(long done, long total);
+    }
+
+    private static final int PROGRESS_EVERY = 512;
+
+    private PlanExporter() {
+    }
+
+    /**
+     * Exports to a file: written next to it and moved into place at the end,
+     * so a failed or cancelled export never leaves a half-written file.
+     * Returns the number of tasks written.
+     */
+    public static int export(List<Task> tasks, Format format, Path file, Progress progress,
+                             BooleanSupplier cancelled) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".part");
+        try {
+            int n;
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                n = write(tasks, format, ch, progress, cancelled);
+                ch.force(false);
+            }
+            // moved once closed, which Windows needs
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return n;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Writes the tasks in the given format; throws CancellationException if cancelled. */
+    public static int write(List<Task> tasks, Format format, WritableByteChannel out, Progress progress,
+                            BooleanSupplier cancelled) throws IOException {
+        Sink sink = new Sink(out);
+        int total = tasks.size();
+        switch (format) {
+            case ICS -> {
+                sink.put("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//AI Study Planner//EN\r\nCALSCALE:GREGORIAN\r\n");
+                String stamp = icsStamp(ZonedDateTime.now(ZoneOffset.UTC));
+                for (int i = 0; i < total; i++) {
+                    if (i % PROGRESS_EVERY == 0) checkpoint(i, total, progress, cancelled);
+                    ics(sink, tasks.get(i), stamp);
+                }
+                sink.put("END:VCALENDAR\r\n");
+            }
+            case CSV -> {
+                sink.put("id,date,subject,hours,title,done\r\n");
+                for (int i = 0; i < total; i++) {
+                    if (i % PROGRESS_EVERY == 0) checkpoint(i, total, progress, cancelled);
+                    csv(sink, tasks.get(i));
+                }
+            }
+            case JSONL -> {
+                for (int i = 0; i < total; i++) {
+                    if (i % PROGRESS_EVERY == 0) checkpoint(i, total, progress, cancelled);
+                    jsonl(sink, tasks.get(i));
+                }
+            }
+        }
+        sink.flush();
+        if (progress != null) progress.update(total, total);
+        return total;
+    }
+
+    private static void checkpoint(int done, int total, Progress progress, BooleanSupplier cancelled) {
+        if (cancelled != null && cancelled.getAsBoolean()) throw new CancellationException("export cancelled");
+        if (progress != null) progress.update(done, total);
+    }
+
+    // --- encoders ---
+
+    // All-day event; UID is stable per task so re-importing updates instead of duplicating
+    private static void ics(Sink s, Task t, String stamp) throws IOException {
+        s.put("BEGIN:VEVENT\r\n");
+        s.put("UID:").put(t.getId()).put("@study-planner\r\n");
+        s.put("DTSTAMP:").put(stamp).put("\r\n");
+        LocalDate d = t.getDate();
+        s.put("DTSTART;VALUE=DATE:").basicDate(d).put("\r\n");
+        s.put("DTEND;VALUE=DATE:").basicDate(d.plusDays(1)).put("\r\n");
+        s.folding(true);
+        s.put("SUMMARY:").icsText(t.getSubject()).put(": ").icsText(t.getTitle());
+        s.folding(false).put("\r\n");
+        s.folding(true);
+        s.put("CATEGORIES:").icsText(t.getSubject());
+        s.folding(false).put("\r\n");
+        s.put("DESCRIPTION:").hours(t.getHours()).put("h study").put(t.isDone() ? " (done)" : "").put("\r\n");
+        s.put("END:VEVENT\r\n");
+    }
+
+    private static void csv(Sink s, Task t) throws IOException {
+        s.csvField(t.getId()).put(',').isoDate(t.getDate()).put(',')
+            .csvField(t.getSubject()).put(',').hours(t.getHours()).put(',')
+            .csvField(t.getTitle()).put(',').put(t.isDone() ? "true" : "false").put("\r\n");
+    }
+
+    private static void jsonl(Sink s, Task t) throws IOException {
+        s.put("{\"id\":").jsonString(t.getId())
+            .put(",\"date\":\"").isoDate(t.getDate())
+            .put("\",\"subject\":").jsonString(t.getSubject())
+            .put(",\"hours\":").hours(t.getHours())
+            .put(",\"title\":").jsonString(t.getTitle())
+            .put(",\"done\":").put(t.isDone() ? "true" : "false").put("}\n");
+    }
+
+    private static String icsStamp(ZonedDateTime utc) {
+        return String.format("%04d%02d%02dT%02d%02d%02dZ", utc.getYear(), utc.getMonthValue(), utc.getDayOfMonth(),
+            utc.getHour(), utc.getMinute(), utc.getSecond());
+    }
+
+    /** UTF-8 writer over a fixed buffer, with the few field encodings the formats need. */
+    private static final class Sink {
+        private final WritableByteChannel out;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+        private final StringBuilder scratch = new StringBuilder(128); // reused for JSON escaping and hours
+        private boolean fold;   // iCalendar: fold content lines at 75 octets
+        private int lineOctets;
+
+        Sink(WritableByteChannel out) {
+            this.out = out;
+        }
+
+        Sink folding(boolean on) {
+            fold = on;
+            lineOctets = 0;
+            return this;
+        }
+
+        Sink put(CharSequence s) throws IOException {
+            for (int i = 0, n = s.length(); i < n; i++) i = text(s, i);
+            return this;
+        }
+
+        Sink put(char c) throws IOException {
+            putCodePoint(Character.isSurrogate(c) ? '?' : c);
+            return this;
+        }
+
+        // Writes the character at i (a whole surrogate pair if there is one); returns the last index used
+        private int text(CharSequence s, int i) throws IOException {
+            char c = s.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                putCodePoint(Character.toCodePoint(c, s.charAt(i + 1)));
+                return i + 1;
+            }
+            putCodePoint(Character.isSurrogate(c) ? '?' : c);
+            return i;
+        }
+
+        private void putCodePoint(int cp) throws IOException {
+            int len = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            if (buf.remaining() < len + 3) flush();
+            if (fold) {
+                if (lineOctets + len > 75) {
+                    buf.put((byte) '\r').put((byte) '\n').put((byte) ' ');
+                    lineOctets = 1;
+                }
+                lineOctets += len;
+            }
+            switch (len) {
+                case 1 -> buf.put((byte) cp);
+                case 2 -> buf.put((byte) (0xC0 | cp >> 6)).put((byte) (0x80 | cp & 0x3F));
+                case 3 -> buf.put((byte) (0xE0 | cp >> 12)).put((byte) (0x80 | cp >> 6 & 0x3F))
+                            .put((byte) (0x80 | cp & 0x3F));
+                default -> buf.put((byte) (0xF0 | cp >> 18)).put((byte) (0x80 | cp >> 12 & 0x3F))
+                            .put((byte) (0x80 | cp >> 6 & 0x3F)).put((byte) (0x80 | cp & 0x3F));
+            }
+        }
+
+        Sink digits(int v, int width) throws IOException {
+            int div = 1;
+            for (int i = 1; i < width; i++) div *= 10;
+            for (; div > 0; div /= 10) putCodePoint('0' + (v / div) % 10);
+            return this;
+        }
+
+        Sink isoDate(LocalDate d) throws IOException {
+            return digits(d.getYear(), 4).put('-').digits(d.getMonthValue(), 2).put('-').digits(d.getDayOfMonth(), 2);
+        }
+
+        Sink basicDate(LocalDate d) throws IOException {
+            return digits(d.getYear(), 4).digits(d.getMonthValue(), 2).digits(d.getDayOfMonth(), 2);
+        }
+
+        // as Hours.format prints them, through the reused buffer
+        Sink hours(double h) throws IOException {
+            scratch.setLength(0);
+            return put(Hours.append(scratch, h));
+        }
+
+        // RFC 5545 TEXT: escape backslash, semicolon, comma and newlines
+        Sink icsText(String s) throws IOException {
+            for (int i = 0, n = s.length(); i < n; i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '\\', ';', ',' -> put('\\').put(c);
+                    case '\n' -> put("\\n");
+                    case '\r' -> { }
+                    default -> i = text(s, i);
+                }
+            }
+            return this;
+        }
+
+        // RFC 4180: quote only when needed, doubling quotes
+        Sink csvField(String s) throws IOException {
+            boolean quote = false;
+            for (int i = 0, n = s.length(); i < n && !quote; i++) {
+                char c = s.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) return put(s);
+            put('"');
+            for (int i = 0, n = s.length(); i < n; i++) {
+                char c = s.charAt(i);
+                if (c == '"') put('"');
+                i = text(s, i);
+            }
+            return put('"');
+        }
+
+        // escaped by JsonWriter into a reused buffer, then encoded like any text
+        Sink jsonString(String s) throws IOException {
+            scratch.setLength(0);
+            JsonWriter.quote(s, scratch);
+            return put(scratch);
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) out.write(buf);
+            buf.clear();
+        }
+    }
+}
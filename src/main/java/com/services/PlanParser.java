@@ -0,0 +1,258 @@
+package com.services;
+
+import com.model.Task;
+import com.util.Metrics;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Month;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Streaming parser for the plain-text plan format:
+ * YYYY-MM-DD | Subject | hours | title
+ *
+ * Input can be fed in arbitrary chunks (a Reader, a CharSequence, or lines
+ * as they arrive from the network). Each complete line is scanned by hand,
+ * without regex or exceptions, and valid tasks are pushed to the sink right away.
+ * Lines that don't fit the format are reported to the optional handler.
+ */
+public class PlanParser {
+
+    /** Callback for lines that could not be turned into a task. */
+    @FunctionalInterface
+    public interface MalformedLineHandler {
+        void malformed(int lineNo, String line, String reason);
+    }
+
+    private static final Metrics.Counter ACCEPTED = Metrics.counter("parse.lines.accepted");
+    private static final Metrics.Counter REJECTED = Metrics.counter("parse.lines.rejected");
+    private static final int MAX_DIGITS = 15;     // exact in a long and a double
+    private static final double MAX_HOURS = 24;
+
+    private final Consumer<Task> sink;
+    private final MalformedLineHandler onMalformed;
+    private final StringBuilder pending = new StringBuilder(128);
+    private final Map<String, String> subjects = new HashMap<>(); // one String per subject name
+    private final int[] bounds = new int[8];
+    private String lastReason;
+    private int lineNo;
+    private int accepted;
+    private int rejected;
+
+    public PlanParser(Consumer<Task> sink) {
+        this(sink, null);
+    }
+
+    public PlanParser(Consumer<Task> sink, MalformedLineHandler onMalformed) {
+        this.sink = sink;
+        this.onMalformed = onMalformed;
+    }
+
+    public int accepted() { return accepted; }
+    public int rejected() { return rejected; }
+
+    /** Reads the whole Reader through a fixed buffer and flushes the last line. */
+    public void parse(Reader in) throws IOException {
+        char[] buf = new char[8192];
+        int n;
+        while ((n = in.read(buf)) != -1) feed(buf, 0, n);
+        finish();
+    }
+
+    /** Parses a complete text and flushes the last line. */
+    public void parse(CharSequence text) {
+        feed(text);
+        finish();
+    }
+
+    public void feed(CharSequence chunk) {
+        int start = 0;
+        int len = chunk.length();
+        for (int i = 0; i < len; i++) {
+            if (chunk.charAt(i) == '\n') {
+                if (pending.length() == 0) {
+                    acceptLine(chunk, start, i);
+                } else {
+                    pending.append(chunk, start, i);
+                    flushPending();
+                }
+                start = i + 1;
+            }
+        }
+        if (start < len) pending.append(chunk, start, len);
+    }
+
+    public void feed(char[] buf, int off, int len) {
+        int end = off + len;
+        int start = off;
+        for (int i = off; i < end; i++) {
+            if (buf[i] == '\n') {
+                pending.append(buf, start, i - start);
+                flushPending();
+                start = i + 1;
+            }
+        }
+        if (start < end) pending.append(buf, start, end - start);
+    }
+
+    /** Flushes a trailing line that had no newline. */
+    public void finish() {
+        if (pending.length() > 0) flushPending();
+    }
+
+    /** Parses one line (without its terminator); handy for line-oriented sources. */
+    public boolean parseLine(CharSequence line) {
+        return acceptLine(line, 0, line.length());
+    }
+
+    private void flushPending() {
+        acceptLine(pending, 0, pending.length());
+        pending.setLength(0);
+    }
+
+    private boolean acceptLine(CharSequence s, int from, int to) {
+        lineNo++;
+        // trim (also drops the '\r' of CRLF input)
+        while (from < to && s.charAt(from) <= ' ') from++;
+        while (to > from && s.charAt(to - 1) <= ' ') to--;
+        if (from == to) return false;
+
+        Task t = scan(s, from, to);
+        if (t != null) {
+            accepted++;
+            ACCEPTED.inc();
+            sink.accept(t);
+            return true;
+        }
+        rejected++;
+        REJECTED.inc();
+        if (onMalformed != null) {
+            onMalformed.malformed(lineNo, s.subSequence(from, to).toString(), lastReason);
+        }
+        return false;
+    }
+
+    // Splits the trimmed line on '|' into up to four trimmed fields; null + reason on failure.
+    private Task scan(CharSequence s, int from, int to) {
+        int field = 0;
+        int start = from;
+        for (int i = from; i <= to && field < 4; i++) {
+            if (i == to || s.charAt(i) == '|') {
+                int a = start, b = i;
+                while (a < b && s.charAt(a) <= ' ') a++;
+                while (b > a && s.charAt(b - 1) <= ' ') b--;
+                bounds[field * 2] = a;
+                bounds[field * 2 + 1] = b;
+                field++;
+                start = i + 1;
+            }
+        }
+        if (field < 4) {
+            lastReason = "expected 4 fields separated by '|'";
+            return null;
+        }
+
+        long epochDay = parseEpochDay(s, bounds[0], bounds[1]);
+        if (epochDay == Long.MIN_VALUE) {
+            lastReason = "invalid date";
+            return null;
+        }
+        if (bounds[2] == bounds[3]) {
+            lastReason = "missing subject";
+            return null;
+        }
+        double hours = parseHours(s, bounds[4], bounds[5]);
+        if (Double.isNaN(hours)) {
+            lastReason = "invalid hours";
+            return null;
+        }
+        String subject = s.subSequence(bounds[2], bounds[3]).toString();
+        subject = subjects.computeIfAbsent(subject, k -> k);
+        String title = s.subSequence(bounds[6], bounds[7]).toString();
+        return new Task(newId(), (int) epochDay, subject, (float) hours, title, false);
+    }
+
+    // YYYY-MM-DD as an epoch day (Long.MIN_VALUE when invalid); never throws, never allocates
+    static long parseEpochDay(CharSequence s, int from, int to) {
+        if (to - from != 10 || s.charAt(from + 4) != '-' || s.charAt(from + 7) != '-') return Long.MIN_VALUE;
+        int year = digits(s, from, from + 4);
+        int month = digits(s, from + 5, from + 7);
+        int day = digits(s, from + 8, from + 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1) return Long.MIN_VALUE;
+        if (day > Month.of(month).length(Year.isLeap(year))) return Long.MIN_VALUE;
+        // same arithmetic as LocalDate.toEpochDay
+        long y = year;
+        long total = 365 * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!Year.isLeap(year)) total--;
+        }
+        return total - 719528; // days from year 0 to 1970
+    }
+
+    // [+-]digits[.digits] within 0-24h; returns NaN instead of throwing. Up to
+    // 15 significant digits are summed exactly; longer numbers go to parseDouble.
+    static double parseHours(CharSequence s, int from, int to) {
+        if (from == to) return Double.NaN;
+        int start = from;
+        boolean negative = false;
+        char c0 = s.charAt(from);
+        if (c0 == '+' || c0 == '-') {
+            negative = c0 == '-';
+            from++;
+        }
+        long whole = 0;
+        long frac = 0;
+        long scale = 1;
+        boolean seenDot = false;
+        int nDigits = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else if (c >= '0' && c <= '9') {
+                if (++nDigits > MAX_DIGITS) continue;
+                if (seenDot) {
+                    frac = frac * 10 + (c - '0');
+                    scale *= 10;
+                } else {
+                    whole = whole * 10 + (c - '0');
+                }
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (nDigits == 0) return Double.NaN;
+        double v;
+        if (nDigits > MAX_DIGITS) {
+            v = Double.parseDouble(s.subSequence(start, to).toString()); // syntax already checked
+        } else {
+            v = whole + (double) frac / scale;
+            if (negative) v = -v;
+        }
+        return v >= 0 && v <= MAX_HOURS ? v : Double.NaN;
+    }
+
+    private static int digits(CharSequence s, int from, int to) {
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    // Random 64-bit id in base 36 (~13 chars instead of a 36-char UUID)
+    public static String newId() {
+        return Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+    }
+}
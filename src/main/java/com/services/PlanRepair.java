@@ -0,0 +1,237 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import com.util.Metrics;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Validation and repair stage between the model and the UI, so a flawed
+ * model plan is fixed up instead of thrown away (and regenerated). Per task:
+ *
+ * - subjects are matched to the known list, exactly or ignoring case and
+ *   punctuation ("math " -> "Math"); unknown subjects are dropped
+ * - hours are clamped to 0.5-3h
+ * - dates outside [start, end] are dropped
+ * - repeats of a date + subject + title are dropped
+ * - a task dated after its subject's last study day (the day before the
+ *   exam, as LocalScheduler plans it) moves back to the latest day with room
+ * - a task that would push its day over dailyHours moves to the next day
+ *   with room up to that last study day
+ * - a task with nowhere to go is dropped
+ *
+ * Tasks are handled one at a time as they arrive (accept), so it also works
+ * on a streamed plan. Free hours per day sit in a segment tree of maxima, so
+ * finding the nearest day with room is O(log days) and a plan of n tasks
+ * costs O(n log days). report() says what was changed.
+ */
+public class PlanRepair {
+
+    /** What was wrong with a task. */
+    public enum Issue {
+        RENAMED_SUBJECT, UNKNOWN_SUBJECT, CLAMPED_HOURS, OUT_OF_RANGE, DUPLICATE, AFTER_EXAM, SHIFTED, NO_ROOM;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase().replace('_', ' ');
+        }
+    }
+
+    /** One change made to a task (the task as it came in). */
+    public record Fix(Issue issue, Task task, String detail) {}
+
+    /** Counts per issue, hours in and out, and the first fixes in detail. */
+    public static final class Report {
+        private static final int MAX_FIXES = 200;
+
+        private final EnumMap<Issue, Integer> counts = new EnumMap<>(Issue.class);
+        private final List<Fix> fixes = new ArrayList<>();
+        private int input;
+        private int output;
+        private double hoursIn;
+        private double hoursOut;
+
+        public int input() { return input; }
+        public int output() { return output; }
+        public double hoursIn() { return hoursIn; }
+        public double hoursOut() { return hoursOut; }
+        public int count(Issue issue) { return counts.getOrDefault(issue, 0); }
+        public boolean isClean() { return counts.isEmpty(); }
+
+        /** The first 200 fixes, in the order they were made. */
+        public List<Fix> fixes() { return Collections.unmodifiableList(fixes); }
+
+        /** Count per issue found, for logs and JSON. */
+        public Map<Issue, Integer> counts() { return Collections.unmodifiableMap(counts); }
+
+        private void add(Issue issue, Task t, String detail) {
+            counts.merge(issue, 1, Integer::sum);
+            FIXES.get(issue).inc();
+            if (fixes.size() < MAX_FIXES) fixes.add(new Fix(issue, t, detail));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(64);
+            sb.append(input).append(" tasks in, ").append(output).append(" out (")
+                .append(String.format("%.1fh -> %.1fh", hoursIn, hoursOut)).append(')');
+            String sep = ": ";
+            for (Map.Entry<Issue, Integer> e : counts.entrySet()) {
+                sb.append(sep).append(e.getValue()).append(' ').append(e.getKey());
+                sep = ", ";
+            }
+            return sb.toString();
+        }
+    }
+
+    /** A repaired plan and what was done to it. */
+    public record Result(List<Task> tasks, Report report) {}
+
+    private static final EnumMap<Issue, Metrics.Counter> FIXES = new EnumMap<>(Issue.class);
+
+    static {
+        for (Issue i : Issue.values()) FIXES.put(i, Metrics.counter("repair." + i.name().toLowerCase()));
+    }
+
+    private final Map<String, Subject> exact = new HashMap<>();
+    private final Map<String, Subject> loose = new HashMap<>();
+    private final int first;
+    private final int days;              // length of [start, end]
+    private final int leaves;            // days rounded up to a power of two
+    private final long[] free;           // segment tree: max hundredths free per node, days at [leaves, leaves + days)
+    private final Set<String> seen = new HashSet<>();
+    private final Report report = new Report();
+
+    public PlanRepair(List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end) {
+        for (Subject s : subjects) {
+            exact.putIfAbsent(s.getName(), s);
+            loose.putIfAbsent(key(s.getName()), s);
+        }
+        first = (int) start.toEpochDay();
+        long cap = hundredths(dailyHours);
+        days = Math.max(0, (int) (end.toEpochDay() - first) + 1);
+        leaves = Integer.highestOneBit(Math.max(1, days - 1)) << 1;
+        free = new long[2 * leaves];
+        Arrays.fill(free, leaves, 2 * leaves, -1);   // padding never fits
+        Arrays.fill(free, leaves, leaves + days, cap);
+        for (int n = leaves - 1; n > 0; n--) free[n] = Math.max(free[2 * n], free[2 * n + 1]);
+    }
+
+    /** Repairs a whole plan. */
+    public static Result repair(List<Task> plan, List<Subject> subjects, double dailyHours,
+                                LocalDate start, LocalDate end) {
+        PlanRepair r = new PlanRepair(subjects, dailyHours, start, end);
+        List<Task> out = new ArrayList<>(plan.size());
+        for (Task t : plan) {
+            Task fixed = r.accept(t);
+            if (fixed != null) out.add(fixed);
+        }
+        return new Result(out, r.report());
+    }
+
+    /** The task as it should be shown (maybe renamed, clamped or moved), or null if it is dropped. */
+    public Task accept(Task t) {
+        report.input++;
+        report.hoursIn += t.getHours();
+
+        Subject s = exact.get(t.getSubject());
+        if (s == null) {
+            s = loose.get(key(t.getSubject()));
+            if (s == null) {
+                report.add(Issue.UNKNOWN_SUBJECT, t, t.getSubject());
+                return null;
+            }
+            report.add(Issue.RENAMED_SUBJECT, t, t.getSubject() + " -> " + s.getName());
+        }
+
+        int day = t.getEpochDay() - first;
+        if (day < 0 || day >= days) {
+            report.add(Issue.OUT_OF_RANGE, t, t.getDate().toString());
+            return null;
+        }
+
+        double h = t.getHours();
+        double clamped = Math.min(LocalScheduler.MAX_BLOCK, Math.max(LocalScheduler.MIN_BLOCK, h));
+        if (Double.isNaN(h)) clamped = LocalScheduler.MIN_BLOCK;
+        if (clamped != h) report.add(Issue.CLAMPED_HOURS, t, h + "h -> " + clamped + "h");
+
+        String title = t.getTitle() == null ? "" : t.getTitle().trim().toLowerCase();
+        if (!seen.add(day + "|" + s.getName() + "|" + title)) {
+            report.add(Issue.DUPLICATE, t, t.getDate() + " " + s.getName() + " " + t.getTitle());
+            return null;
+        }
+
+        long need = hundredths(clamped);
+        int last = deadline(s);
+        int at = day;
+        if (day > last) {
+            at = last < 0 ? -1 : lastFit(1, 0, leaves - 1, 0, last, need);
+            if (at >= 0) report.add(Issue.AFTER_EXAM, t, t.getDate() + " -> " + LocalDate.ofEpochDay(first + at));
+        } else if (free[leaves + day] < need) {
+            at = firstFit(1, 0, leaves - 1, day + 1, last, need);
+            if (at >= 0) report.add(Issue.SHIFTED, t, t.getDate() + " -> " + LocalDate.ofEpochDay(first + at));
+        }
+        if (at < 0) {
+            report.add(Issue.NO_ROOM, t, clamped + "h on " + t.getDate());
+            return null;
+        }
+        take(at, need);
+
+        report.output++;
+        report.hoursOut += clamped;
+        if (s.getName().equals(t.getSubject()) && clamped == h && at == day) return t;
+        return new Task(t.getId(), first + at, s.getName(), (float) clamped, t.getTitle(), t.isDone());
+    }
+
+    public Report report() {
+        return report;
+    }
+
+    private void take(int day, long need) {
+        int n = leaves + day;
+        free[n] -= need;
+        for (n >>= 1; n > 0; n >>= 1) free[n] = Math.max(free[2 * n], free[2 * n + 1]);
+    }
+
+    // Leftmost day in [lo, hi] with `need` free, or -1; node covers [nodeLo, nodeHi]
+    private int firstFit(int node, int nodeLo, int nodeHi, int lo, int hi, long need) {
+        if (nodeHi < lo || nodeLo > hi || free[node] < need) return -1;
+        if (nodeLo == nodeHi) return nodeLo;
+        int mid = (nodeLo + nodeHi) >>> 1;
+        int d = firstFit(2 * node, nodeLo, mid, lo, hi, need);
+        return d >= 0 ? d : firstFit(2 * node + 1, mid + 1, nodeHi, lo, hi, need);
+    }
+
+    // Rightmost day in [lo, hi] with `need` free, or -1
+    private int lastFit(int node, int nodeLo, int nodeHi, int lo, int hi, long need) {
+        if (nodeHi < lo || nodeLo > hi || free[node] < need) return -1;
+        if (nodeLo == nodeHi) return nodeLo;
+        int mid = (nodeLo + nodeHi) >>> 1;
+        int d = lastFit(2 * node + 1, mid + 1, nodeHi, lo, hi, need);
+        return d >= 0 ? d : lastFit(2 * node, nodeLo, mid, lo, hi, need);
+    }
+
+    // Last day index the subject may be studied (LocalScheduler's rule), -1 if its exam is before the range
+    private int deadline(Subject s) {
+        if (s.getExamDate() == null) return days - 1;
+        long exam = s.getExamDate().toEpochDay();
+        if (exam < first) return -1;
+        return (int) (LocalScheduler.lastStudyDay(exam, first, first + days - 1L) - first);
+    }
+
+    // Case, spaces and punctuation don't matter: "Comp. Sci" matches "comp sci"
+    private static String key(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    private static long hundredths(double hours) {
+        return Math.round(hours * 100);
+    }
+}
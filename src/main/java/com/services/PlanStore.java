@@ -0,0 +1,327 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import com.util.Metrics;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Local plan persistence as a compact, versioned, append-only binary log.
+ *
+ * File layout: "SPLN" magic, u16 version, then records of
+ *   u8 type | payload
+ * where strings are u16 length + UTF-8 and dates are epoch-day ints.
+ * Loading maps the file read-only and replays the records; everything from
+ * the first incomplete or unknown record on (a crash mid-write, a zero-filled
+ * tail) is ignored and cut off by attach(). After attach(), every change to the
+ * plan or subjects is appended as a small delta on a background writer
+ * thread. The log is rewritten as a compact snapshot on load when deltas
+ * outnumber live tasks.
+ */
+public class PlanStore {
+
+    private static final int MAGIC = 0x53504C4E; // "SPLN"
+    private static final short VERSION = 1;
+
+    private static final byte SUBJECTS = 1;    // u16 count, then subjects
+    private static final byte TASK_PUT = 2;    // task
+    private static final byte TASK_REMOVE = 3; // id
+    private static final byte TASK_DONE = 4;   // id, u8 done
+
+    private static final Metrics.Counter WRITE_FAILURES = Metrics.counter("store.writeFailures");
+    private static final Logger LOG = Logger.getLogger(PlanStore.class.getName());
+
+    /** What load() found on disk. */
+    public record Snapshot(List<Subject> subjects, List<Task> tasks) {}
+
+    private final Path file;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "plan-store-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    private FileChannel out;
+    private int records;
+    private long validEnd; // end of the last complete record seen by load()
+
+    public PlanStore(Path file) {
+        this.file = file;
+    }
+
+    /** Plan file from -Dplanner.data.dir, defaulting to ~/.study-planner/plan.bin */
+    public static Path defaultFile() {
+        String dir = System.getProperty("planner.data.dir");
+        Path base = dir == null || dir.isBlank()
+            ? Path.of(System.getProperty("user.home"), ".study-planner")
+            : Path.of(dir);
+        return base.resolve("plan.bin");
+    }
+
+    public Snapshot load() throws IOException {
+        List<Subject> subjects = new ArrayList<>();
+        Map<String, Task> tasks = new LinkedHashMap<>();
+        records = 0;
+        validEnd = 0;
+        if (!Files.isRegularFile(file) || Files.size(file) < 6) return new Snapshot(subjects, new ArrayList<>());
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.getInt() != MAGIC) throw new IOException("Not a plan file: " + file);
+            short version = buf.getShort();
+            if (version > VERSION) throw new IOException("Plan file version " + version + " is newer than this app");
+            validEnd = buf.position();
+            replay:
+            while (buf.hasRemaining()) {
+                try {
+                    byte type = buf.get();
+                    switch (type) {
+                        case SUBJECTS -> {
+                            int n = Short.toUnsignedInt(buf.getShort());
+                            List<Subject> list = new ArrayList<>(n);
+                            for (int i = 0; i < n; i++) list.add(readSubject(buf));
+                            subjects = list;
+                        }
+                        case TASK_PUT -> {
+                            Task t = readTask(buf);
+                            tasks.put(t.getId(), t);
+                        }
+                        case TASK_REMOVE -> tasks.remove(readString(buf));
+                        case TASK_DONE -> {
+                            Task t = tasks.get(readString(buf));
+                            boolean done = buf.get() != 0;
+                            if (t != null) t.setDone(done);
+                        }
+                        default -> {
+                            break replay; // garbage, treated like a torn tail
+                        }
+                    }
+                    records++;
+                    validEnd = buf.position();
+                } catch (java.nio.BufferUnderflowException | DateTimeException torn) {
+                    break; // incomplete or garbled trailing record
+                }
+            }
+        }
+        Snapshot snap = new Snapshot(subjects, new ArrayList<>(tasks.values()));
+        if (records > 2 * (snap.tasks().size() + 1)) {
+            try {
+                compact(snap);
+            } catch (IOException e) {
+                // e.g. the mapping still pins the file on Windows; retry next start
+                LOG.info("Plan compaction skipped: " + e.getMessage());
+            }
+        }
+        return snap;
+    }
+
+    /** Rewrites the log as one snapshot (write-then-rename). */
+    public void compact(Snapshot snap) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+            buf.putInt(MAGIC).putShort(VERSION);
+            buf = put(ch, buf, encodeSubjects(snap.subjects()));
+            for (Task t : snap.tasks()) buf = put(ch, buf, encodeTask(t));
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        records = 1 + snap.tasks().size();
+        validEnd = Files.size(file);
+    }
+
+    /**
+     * Moves an unreadable plan file aside (to plan.bin.bad-millis, or copies
+     * it there if it can't be moved) so attach() can start a new log; returns
+     * where it went.
+     */
+    public Path setAside() throws IOException {
+        Path aside = file.resolveSibling(file.getFileName() + ".bad-" + System.currentTimeMillis());
+        try {
+            Files.move(file, aside);
+        } catch (IOException e) {
+            Files.copy(file, aside); // e.g. still mapped on Windows
+        }
+        validEnd = 0;
+        return aside;
+    }
+
+    /**
+     * Starts logging deltas for the given lists. Call after the loaded plan
+     * has been put into them, so the load itself is not logged again. Unless
+     * load() read a valid header, the file is started afresh from the lists.
+     */
+    public void attach(TaskRepository repo, ObservableList<Subject> subjects) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        boolean fresh = validEnd == 0;
+        out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        // drop a torn tail (or leftover bytes) so new deltas aren't hidden behind it
+        if (out.size() > validEnd) out.truncate(validEnd);
+        if (fresh) {
+            append(ByteBuffer.allocate(6).putInt(MAGIC).putShort(VERSION).flip());
+            append(encodeSubjects(subjects));
+            for (Task t : repo.all()) append(encodeTask(t));
+        }
+
+        repo.addListener((removed, added) -> {
+            Set<String> addedIds = new HashSet<>();
+            for (Task t : added) addedIds.add(t.getId());
+            for (Task t : removed) {
+                // ids re-added in the same change are covered by the put below
+                if (!addedIds.contains(t.getId())) append(encodeId(TASK_REMOVE, t.getId()));
+            }
+            for (Task t : added) append(encodeTask(t));
+        });
+        subjects.addListener((ListChangeListener<Subject>) c -> append(encodeSubjects(subjects)));
+    }
+
+    /** Logs a done toggle (the lists don't change for it). */
+    public void recordDone(Task t) {
+        ByteBuffer id = encodeId(TASK_DONE, t.getId());
+        ByteBuffer b = ByteBuffer.allocate(id.remaining() + 1);
+        b.put(id).put((byte) (t.isDone() ? 1 : 0)).flip();
+        append(b);
+    }
+
+    /** Waits for pending writes and closes the file. */
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            WRITE_FAILURES.inc();
+            LOG.warning("Closing the plan file failed: " + e.getMessage());
+        }
+    }
+
+    private void append(ByteBuffer record) {
+        if (out == null) return;
+        records++;
+        writer.execute(() -> {
+            try {
+                while (record.hasRemaining()) out.write(record);
+            } catch (IOException e) {
+                WRITE_FAILURES.inc();
+                LOG.warning("Plan autosave failed: " + e.getMessage());
+            }
+        });
+    }
+
+    // --- encoding ---
+
+    private static ByteBuffer put(FileChannel ch, ByteBuffer buf, ByteBuffer rec) throws IOException {
+        if (buf.remaining() < rec.remaining()) {
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            buf.clear();
+            if (buf.remaining() < rec.remaining()) buf = ByteBuffer.allocate(rec.remaining() * 2);
+        }
+        return buf.put(rec);
+    }
+
+    private static ByteBuffer encodeSubjects(List<Subject> subjects) {
+        int n = Math.min(subjects.size(), 0xFFFF);
+        List<byte[]> names = new ArrayList<>(n);
+        int size = 1 + 2;
+        for (int i = 0; i < n; i++) {
+            byte[] name = utf8(subjects.get(i).getName());
+            names.add(name);
+            size += 2 + name.length + 1 + 8 + 4;
+        }
+        ByteBuffer b = ByteBuffer.allocate(size);
+        b.put(SUBJECTS).putShort((short) n);
+        for (int i = 0; i < n; i++) {
+            Subject s = subjects.get(i);
+            putString(b, names.get(i));
+            b.put((byte) s.getDifficulty())
+             .putDouble(s.getTargetHours())
+             .putInt(s.getExamDate() == null ? Integer.MIN_VALUE : (int) s.getExamDate().toEpochDay());
+        }
+        return b.flip();
+    }
+
+    private static ByteBuffer encodeTask(Task t) {
+        byte[] id = utf8(t.getId());
+        byte[] subject = utf8(t.getSubject());
+        byte[] title = utf8(t.getTitle());
+        ByteBuffer b = ByteBuffer.allocate(1 + 6 + id.length + subject.length + title.length + 4 + 4 + 1);
+        b.put(TASK_PUT);
+        putString(b, id);
+        b.putInt(t.getEpochDay());
+        putString(b, subject);
+        b.putFloat((float) t.getHours());
+        putString(b, title);
+        b.put((byte) (t.isDone() ? 1 : 0));
+        return b.flip();
+    }
+
+    private static ByteBuffer encodeId(byte type, String id) {
+        byte[] bytes = utf8(id);
+        ByteBuffer b = ByteBuffer.allocate(1 + 2 + bytes.length);
+        b.put(type);
+        putString(b, bytes);
+        return b.flip();
+    }
+
+    private static Subject readSubject(ByteBuffer b) {
+        String name = readString(b);
+        int difficulty = b.get();
+        double target = b.getDouble();
+        int exam = b.getInt();
+        return new Subject(name, difficulty, target, exam == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(exam));
+    }
+
+    private static Task readTask(ByteBuffer b) {
+        String id = readString(b);
+        int epochDay = b.getInt();
+        String subject = readString(b);
+        float hours = b.getFloat();
+        String title = readString(b);
+        boolean done = b.get() != 0;
+        return new Task(id, epochDay, subject, hours, title, done);
+    }
+
+    private static byte[] utf8(String s) {
+        byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        return b.length <= 0xFFFF ? b : Arrays.copyOf(b, 0xFFFF);
+    }
+
+    private static void putString(ByteBuffer b, byte[] bytes) {
+        b.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String readString(ByteBuffer b) {
+        int len = Short.toUnsignedInt(b.getShort());
+        if (len > b.remaining()) throw new java.nio.BufferUnderflowException();
+        byte[] bytes = new byte[len];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
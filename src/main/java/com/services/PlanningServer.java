@@ -0,0 +1,444 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.util.Hours;
+import com.util.Metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+
+/**
+ * Headless HTTP API over the same planning code as the app, for other local
+ * tools (no JavaFX needed):
+ *
+ *   POST   /plans          {"subjects": [{"name", "difficulty", "targetHours", "examDate"}],
+ *                           "dailyHours": 3, "local": false}  -> {"id", "tasks": [...]}
+ *   GET    /plans/{id}     a plan made earlier (the last 1024 are kept)
+ *   POST   /parse          plan text, one "date | subject | hours | title" per line
+ *                          -> {"tasks": [...], "accepted", "rejected"}
+ *   DELETE /requests/{id}  cancels the in-flight request sent with that X-Request-Id
+ *
+ * Java 17 has no virtual threads, so work runs on a bounded pool instead. The
+ * dispatcher thread only admits requests: a semaphore covers the workers plus
+ * a bounded queue, and when it is exhausted the request gets 429 with
+ * Retry-After straight away, so a burst costs neither threads nor memory.
+ * Idle connections are held by the server's selector, not by threads. Each
+ * admitted request has a deadline (504) and can be cancelled (409); both
+ * interrupt its worker. GET is answered on the dispatcher.
+ *
+ * Run: java com.services.PlanningServer [port]
+ * Settings: planner.server.port (8090), planner.server.workers (64),
+ * planner.server.queue (4096), planner.server.timeoutMs (30000).
+ */
+public class PlanningServer {
+
+    private static final Metrics.Timer REQUESTS = Metrics.timer("server.request");
+    private static final Metrics.Counter REJECTED = Metrics.counter("server.rejected");
+    private static final Metrics.Counter CANCELLED = Metrics.counter("server.cancelled");
+    private static final Metrics.Counter TIMED_OUT = Metrics.counter("server.timeouts");
+    private static final Logger LOG = Logger.getLogger(PlanningServer.class.getName());
+    private static final int KEEP_PLANS = 1024;
+    private static final long MAX_BODY = 4 << 20;
+
+    /** One endpoint's work, run on a worker; returns the JSON body of a 200. */
+    @FunctionalInterface
+    private interface Work {
+        byte[] run(HttpExchange ex) throws Exception;
+    }
+
+    /** Bad input from the client; answered with 400. */
+    private static final class BadRequest extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        BadRequest(String message) {
+            super(message);
+        }
+    }
+
+    /** Thrown by a request body read past MAX_BODY; turned into a BadRequest. */
+    private static final class BodyTooLarge extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        BodyTooLarge() {
+            super("body too large");
+        }
+    }
+
+    // Request body that fails once more than MAX_BODY bytes have been read, whatever the
+    // headers say (a chunked request has no Content-Length)
+    private static final class LimitedBody extends FilterInputStream {
+        private long left = MAX_BODY;
+
+        LimitedBody(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, (int) Math.min(len, left + 1));
+            if (n > 0) count(n);
+            return n;
+        }
+
+        private void count(int n) throws BodyTooLarge {
+            left -= n;
+            if (left < 0) throw new BodyTooLarge();
+        }
+    }
+
+    // An admitted request: whoever answers first (worker, deadline, cancel) wins
+    private static final class Call {
+        final HttpExchange ex;
+        final String id;
+        final long started;
+        private boolean answered;
+        private Thread runner;
+        ScheduledFuture<?> deadline;
+
+        Call(HttpExchange ex, String id, long started) {
+            this.ex = ex;
+            this.id = id;
+            this.started = started;
+        }
+
+        synchronized boolean claim() {
+            if (answered) return false;
+            answered = true;
+            return true;
+        }
+
+        // Stops the worker if it is running this call; a queued call is skipped when it comes up
+        synchronized void interrupt() {
+            if (runner != null) runner.interrupt();
+        }
+
+        synchronized boolean begin() {
+            if (answered) return false;
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        synchronized void end() {
+            runner = null;
+            Thread.interrupted(); // don't leak an interrupt into the next call on this thread
+        }
+    }
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "plan-api-deadlines");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Semaphore admission;
+    private final long timeoutMillis;
+    private final String apiKey;
+    private final Map<String, Call> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> plans = new LinkedHashMap<>(KEEP_PLANS * 4 / 3, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > KEEP_PLANS;
+        }
+    };
+
+    public PlanningServer(int port, int workerCount, int queueCapacity, long timeoutMillis, String apiKey)
+            throws IOException {
+        this.timeoutMillis = timeoutMillis;
+        this.apiKey = apiKey;
+        admission = new Semaphore(workerCount + queueCapacity);
+        // the semaphore is the bound; the queue also has room for calls admitted while a worker
+        // that released its permit is still on its way back to the queue
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(workerCount + queueCapacity), r -> {
+                Thread t = new Thread(r, "plan-api-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        workers.allowCoreThreadTimeOut(true);
+        timer.setRemoveOnCancelPolicy(true);
+        server = HttpServer.create(new InetSocketAddress("localhost", port), queueCapacity);
+        server.createContext("/", this::dispatch);
+        // no executor: handlers run on the dispatcher, which only admits and hands off
+    }
+
+    public static PlanningServer fromSystemProperties(int port, String apiKey) throws IOException {
+        return new PlanningServer(port,
+            Integer.getInteger("planner.server.workers", 64),
+            Integer.getInteger("planner.server.queue", 4096),
+            Long.getLong("planner.server.timeoutMs", 30_000),
+            apiKey);
+    }
+
+    public PlanningServer start() {
+        server.start();
+        return this;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        workers.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    private void dispatch(HttpExchange ex) throws IOException {
+        String method = ex.getRequestMethod();
+        String path = ex.getRequestURI().getPath();
+        if (path.startsWith("/plans/") && method.equals("GET")) {
+            byte[] plan;
+            synchronized (plans) {
+                plan = plans.get(path.substring("/plans/".length()));
+            }
+            if (plan == null) send(ex, 404, error("no such plan"));
+            else send(ex, 200, plan);
+            return;
+        }
+        if (path.startsWith("/requests/") && method.equals("DELETE")) {
+            Call call = inFlight.get(path.substring("/requests/".length()));
+            if (call != null && finish(call, 409, error("cancelled"))) {
+                CANCELLED.inc();
+                send(ex, 204, null);
+            } else {
+                send(ex, 404, error("no such request"));
+            }
+            return;
+        }
+        Work work = switch (path) {
+            case "/plans" -> this::generate;
+            case "/parse" -> this::parse;
+            default -> null;
+        };
+        if (work == null) {
+            send(ex, 404, error("unknown endpoint"));
+        } else if (!method.equals("POST")) {
+            send(ex, 405, error("use POST"));
+        } else if (!admission.tryAcquire()) {
+            REJECTED.inc();
+            ex.getResponseHeaders().add("Retry-After", "1");
+            send(ex, 429, error("busy, retry later"));
+        } else {
+            admit(ex, work);
+        }
+    }
+
+    private void admit(HttpExchange ex, Work work) {
+        String id = ex.getRequestHeaders().getFirst("X-Request-Id");
+        if (id == null || id.isBlank() || inFlight.containsKey(id)) id = PlanParser.newId();
+        Call call = new Call(ex, id, REQUESTS.start());
+        ex.getResponseHeaders().add("X-Request-Id", id);
+        inFlight.put(id, call);
+        if (timeoutMillis > 0) {
+            call.deadline = timer.schedule(() -> {
+                if (finish(call, 504, error("timed out"))) TIMED_OUT.inc();
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        // cannot be rejected: the semaphore never admits more than workers + queue
+        workers.execute(() -> run(call, work));
+    }
+
+    private void run(Call call, Work work) {
+        int status = 500;
+        byte[] body = null;
+        try {
+            if (!call.begin()) return; // answered while queued
+            try {
+                body = work.run(call.ex);
+                status = 200;
+            } catch (BadRequest e) {
+                status = 400;
+                body = error(e.getMessage());
+            } catch (Exception e) {
+                body = error(e.getMessage() == null ? e.toString() : e.getMessage());
+            } finally {
+                call.end();
+            }
+        } finally {
+            // a no-op if cancelled or timed out; otherwise even an Error gets its 500
+            finish(call, status, body != null ? body : error("internal error"));
+            admission.release();
+        }
+    }
+
+    // Answers the call unless someone already did; stops its worker and deadline
+    private boolean finish(Call call, int status, byte[] body) {
+        if (!call.claim()) return false;
+        inFlight.remove(call.id, call);
+        if (call.deadline != null) call.deadline.cancel(false);
+        call.interrupt();
+        try {
+            send(call.ex, status, body);
+        } catch (IOException e) {
+            // client went away
+        }
+        REQUESTS.stop(call.started);
+        return true;
+    }
+
+    // --- endpoints ---
+
+    private byte[] generate(HttpExchange ex) throws Exception {
+        List<Subject> subjects = new ArrayList<>();
+        double dailyHours = 3;
+        boolean local = false;
+        try (JsonReader json = new JsonReader(body(ex))) {
+            json.expect(JsonReader.Token.BEGIN_OBJECT);
+            while (json.peek() == JsonReader.Token.NAME) {
+                switch (json.nextName()) {
+                    case "subjects" -> readSubjects(json, subjects);
+                    case "dailyHours" -> dailyHours = number(json.nextString(), "dailyHours");
+                    case "local" -> local = json.nextBoolean();
+                    default -> json.skipValue();
+                }
+            }
+        } catch (BodyTooLarge e) {
+            throw new BadRequest(e.getMessage());
+        } catch (IOException e) {
+            throw new BadRequest("malformed JSON: " + e.getMessage());
+        }
+        if (subjects.isEmpty()) throw new BadRequest("no subjects");
+        if (!(dailyHours >= LocalScheduler.MIN_BLOCK && dailyHours <= 24)) throw new BadRequest("dailyHours must be 0.5-24");
+
+        String text = local
+            ? AIService.generateLocalPlan(subjects, dailyHours)
+            : AIService.generatePlanFromHF(apiKey, subjects, dailyHours);
+        if (Thread.interrupted()) throw new InterruptedException();
+        List<Task> tasks = AIService.parseTasksFromText(text);
+
+        String id = PlanParser.newId();
+        JsonWriter w = new JsonWriter(new StringBuilder(64 + tasks.size() * 120));
+        w.beginObject().name("id").value(id);
+        writeTasks(w.name("tasks"), tasks);
+        byte[] body = utf8(w.endObject());
+        synchronized (plans) {
+            plans.put(id, body);
+        }
+        return body;
+    }
+
+    private byte[] parse(HttpExchange ex) throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        PlanParser parser = new PlanParser(tasks::add);
+        try (InputStreamReader in = new InputStreamReader(body(ex), StandardCharsets.UTF_8)) {
+            parser.parse(in);
+        } catch (BodyTooLarge e) {
+            throw new BadRequest(e.getMessage());
+        }
+        JsonWriter w = new JsonWriter(new StringBuilder(64 + tasks.size() * 120));
+        w.beginObject();
+        writeTasks(w.name("tasks"), tasks);
+        w.name("accepted").value(parser.accepted()).name("rejected").value(parser.rejected());
+        return utf8(w.endObject());
+    }
+
+    private static InputStream body(HttpExchange ex) throws BadRequest {
+        String length = ex.getRequestHeaders().getFirst("Content-Length");
+        try {
+            if (length != null && Long.parseLong(length.trim()) > MAX_BODY) throw new BadRequest("body too large");
+        } catch (NumberFormatException e) {
+            throw new BadRequest("bad Content-Length");
+        }
+        return new LimitedBody(ex.getRequestBody());
+    }
+
+    private static void readSubjects(JsonReader json, List<Subject> out) throws IOException, BadRequest {
+        json.expect(JsonReader.Token.BEGIN_ARRAY);
+        while (json.peek() == JsonReader.Token.BEGIN_OBJECT) {
+            json.next();
+            String name = null, exam = null;
+            int difficulty = 3;
+            double target = 0;
+            while (json.peek() == JsonReader.Token.NAME) {
+                switch (json.nextName()) {
+                    case "name" -> name = json.nextString();
+                    case "difficulty" -> difficulty = (int) number(json.nextString(), "difficulty");
+                    case "targetHours" -> target = number(json.nextString(), "targetHours");
+                    case "examDate" -> exam = json.nextString();
+                    default -> json.skipValue();
+                }
+            }
+            json.expect(JsonReader.Token.END_OBJECT);
+            if (name == null || name.isBlank()) throw new BadRequest("subject without a name");
+            try {
+                out.add(new Subject(name.trim(), difficulty, target, exam == null ? null : LocalDate.parse(exam)));
+            } catch (RuntimeException e) {
+                throw new BadRequest("bad examDate for " + name + ": " + exam);
+            }
+        }
+        json.expect(JsonReader.Token.END_ARRAY);
+    }
+
+    private static double number(String s, String field) throws BadRequest {
+        try {
+            return Double.parseDouble(s);
+        } catch (RuntimeException e) {
+            throw new BadRequest(field + " must be a number");
+        }
+    }
+
+    private static void writeTasks(JsonWriter w, List<Task> tasks) {
+        w.beginArray();
+        for (Task t : tasks) {
+            w.beginObject()
+                .name("id").value(t.getId())
+                .name("date").value(t.getDate().toString())
+                .name("subject").value(t.getSubject())
+                .name("hours").value(Hours.rounded(t.getHours()))
+                .name("title").value(t.getTitle())
+                .name("done").value(t.isDone())
+                .endObject();
+        }
+        w.endArray();
+    }
+
+    private static byte[] error(String message) {
+        return utf8(new JsonWriter(new StringBuilder()).beginObject().name("error").value(message).endObject());
+    }
+
+    private static byte[] utf8(JsonWriter w) {
+        return w.buffer().toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange ex, int status, byte[] body) throws IOException {
+        try (ex) {
+            if (body == null) {
+                ex.sendResponseHeaders(status, -1);
+                return;
+            }
+            ex.getResponseHeaders().add("Content-Type", "application/json");
+            ex.sendResponseHeaders(status, body.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Metrics.startFromProperties();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("planner.server.port", 8090);
+        PlanningServer api = fromSystemProperties(port, System.getenv("HF_TOKEN")).start();
+        LOG.info("Planning API on http://localhost:" + api.port() + "/");
+    }
+}
@@ -0,0 +1,138 @@
+package com.services;
+
+import com.model.Task;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Running progress totals (overall, per subject, per day) for a TaskRepository.
+ * Totals follow the repository's change events, and each task in the plan is
+ * watched (Task is Observable, and fires for doneProperty too), so a done
+ * toggle from anywhere costs O(1) instead of rescanning the whole plan.
+ */
+public class ProgressTracker {
+
+    /** Counts and hours for one group of tasks. */
+    public static final class Tally {
+        private int total;
+        private int done;
+        private double hours;
+        private double doneHours;
+
+        public int getTotal() { return total; }
+        public int getDone() { return done; }
+        public double getHours() { return hours; }
+        public double getDoneHours() { return doneHours; }
+        public double getPercent() { return total == 0 ? 0.0 : done * 100.0 / total; }
+
+        private void add(Watch w, int sign) {
+            total += sign;
+            hours += sign * w.hours;
+            if (w.done) {
+                done += sign;
+                doneHours += sign * w.hours;
+            }
+        }
+    }
+
+    // The values a task was counted with, so a change can be taken back out exactly
+    private final class Watch implements InvalidationListener {
+        final Task task;
+        String subject;
+        int day;
+        double hours;
+        boolean done;
+
+        Watch(Task task) {
+            this.task = task;
+            read();
+        }
+
+        private void read() {
+            subject = task.getSubject();
+            day = task.getEpochDay();
+            hours = task.getHours();
+            done = task.isDone();
+        }
+
+        @Override
+        public void invalidated(Observable o) {
+            if (task.isDone() == done && task.getHours() == hours
+                    && task.getEpochDay() == day && task.getSubject().equals(subject)) {
+                return;
+            }
+            apply(this, -1);
+            read();
+            apply(this, 1);
+            fire();
+        }
+    }
+
+    private static final Tally EMPTY = new Tally();
+
+    private final Tally overall = new Tally();
+    private final Map<String, Tally> bySubject = new HashMap<>();
+    private final Map<Integer, Tally> byDay = new HashMap<>();
+    private final Map<Task, Watch> watched = new IdentityHashMap<>();
+    private Runnable onChange;
+
+    public ProgressTracker(TaskRepository repo) {
+        for (Task t : repo.all()) watch(t);
+        repo.addListener((removed, added) -> {
+            for (Task t : removed) unwatch(t);
+            for (Task t : added) watch(t);
+            fire();
+        });
+    }
+
+    /** Called (on the FX thread) after any change to the totals. */
+    public void setOnChange(Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    public Tally overall() { return overall; }
+
+    public Tally subject(String name) {
+        return bySubject.getOrDefault(name, EMPTY);
+    }
+
+    public Tally day(LocalDate date) {
+        return byDay.getOrDefault((int) date.toEpochDay(), EMPTY);
+    }
+
+    private void watch(Task t) {
+        if (watched.containsKey(t)) return;
+        Watch w = new Watch(t);
+        watched.put(t, w);
+        t.addListener(w);
+        apply(w, 1);
+    }
+
+    private void unwatch(Task t) {
+        Watch w = watched.remove(t);
+        if (w == null) return;
+        t.removeListener(w);
+        apply(w, -1);
+    }
+
+    private void apply(Watch w, int sign) {
+        overall.add(w, sign);
+        tally(bySubject, w.subject, w, sign);
+        tally(byDay, w.day, w, sign);
+    }
+
+    private static <K> void tally(Map<K, Tally> map, K key, Watch w, int sign) {
+        Tally tally = map.computeIfAbsent(key, k -> new Tally());
+        tally.add(w, sign);
+        if (tally.total == 0) map.remove(key);
+    }
+
+    private void fire() {
+        if (onChange != null) onChange.run();
+    }
+}
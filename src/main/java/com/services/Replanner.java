@@ -0,0 +1,221 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import com.util.Metrics;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Incremental re-planning: turns one change to the plan into a small diff
+ * instead of a full regeneration. Only the affected day or subject is read:
+ *
+ * - Moved: the task stays where the user dropped it. If its day is now over
+ *   the daily cap, other open tasks there move to the day it came from if
+ *   that has room, else to the nearest day with room before their exam
+ *   (later days first, then earlier ones from today).
+ * - Finished: only the ticked task's hours are redistributed. Ticking a past
+ *   task done can make up to that many of the subject's later hours
+ *   redundant (trimmed from the latest tasks); unticking it puts up to that
+ *   many back into free capacity before the exam. Tasks from today on count
+ *   as planned either way, so ticking them changes nothing else.
+ * - SubjectAdded: the subject is scheduled so its done hours plus its open
+ *   hours from today match its target.
+ * - SubjectRemoved: the subject's tasks are dropped.
+ *
+ * Day loads come from the repository's per-day totals (TaskRepository.hoursOn).
+ *
+ * Changed tasks keep their id, so a diff applies with TaskRepository.update.
+ */
+public class Replanner {
+
+    /** A change to the plan. */
+    public sealed interface Change permits Moved, Finished, SubjectAdded, SubjectRemoved {}
+
+    /** task is already at its new date; from is where it was. */
+    public record Moved(Task task, LocalDate from) implements Change {}
+
+    /** task was just ticked or unticked. */
+    public record Finished(Task task) implements Change {}
+
+    public record SubjectAdded(Subject subject) implements Change {}
+
+    public record SubjectRemoved(String name) implements Change {}
+
+    /** Tasks to remove and to add; a changed task is in both (old and new version). */
+    public record Diff(List<Task> removed, List<Task> added) {
+        public boolean isEmpty() {
+            return removed.isEmpty() && added.isEmpty();
+        }
+    }
+
+    private static final double EPS = 1e-9;
+    private static final Metrics.Timer REPLAN = Metrics.timer("replan");
+
+    private final TaskRepository tasks;
+
+    public Replanner(TaskRepository tasks) {
+        this.tasks = tasks;
+    }
+
+    /** Works out and applies the diff for a change (FX thread); returns it. */
+    public Diff apply(Change change, List<Subject> subjects, double dailyHours, LocalDate today) {
+        Diff diff = replan(change, subjects, dailyHours, today);
+        if (!diff.isEmpty()) tasks.update(diff.removed(), diff.added());
+        return diff;
+    }
+
+    /** The diff for a change, without applying it. */
+    public Diff replan(Change change, List<Subject> subjects, double dailyHours, LocalDate today) {
+        long t0 = REPLAN.start();
+        Diff diff = new Diff(new ArrayList<>(), new ArrayList<>());
+        if (change instanceof Moved m) {
+            relieve(m, subjects, dailyHours, today, diff);
+        } else if (change instanceof Finished f) {
+            Subject s = find(subjects, f.task().getSubject());
+            if (s != null) finished(f.task(), s, subjects, dailyHours, today, diff);
+        } else if (change instanceof SubjectAdded a) {
+            Balance b = balance(a.subject(), today);
+            if (b.gap() >= LocalScheduler.MIN_BLOCK - EPS) {
+                extend(a.subject(), b.open(), b.gap(), subjects, dailyHours, today, diff);
+            } else if (b.gap() <= -LocalScheduler.MIN_BLOCK + EPS) {
+                trim(b.open(), -b.gap(), diff);
+            }
+        } else if (change instanceof SubjectRemoved r) {
+            diff.removed().addAll(tasks.findBySubject(r.name()));
+        }
+        REPLAN.stop(t0);
+        return diff;
+    }
+
+    // Moves open tasks off an over-full day, most slack first, whole tasks only
+    private void relieve(Moved m, List<Subject> subjects, double dailyHours, LocalDate today, Diff diff) {
+        Task pinned = m.task();
+        int day = pinned.getEpochDay();
+        double over = tasks.hoursOn(day) - dailyHours;
+        if (over <= EPS) return;
+
+        long end = planEnd(subjects, today);
+        Map<Integer, Double> taken = new HashMap<>(); // hours this diff adds per day
+        List<Task> open = new ArrayList<>();
+        for (Task t : tasks.findByDate(pinned.getDate())) {
+            if (!t.isDone() && !t.getId().equals(pinned.getId())) open.add(t);
+        }
+        open.sort(Comparator.comparingLong((Task t) -> deadline(find(subjects, t.getSubject()), end)).reversed());
+
+        int first = (int) today.toEpochDay();
+        int from = m.from() == null ? -1 : (int) m.from().toEpochDay();
+        for (Task t : open) {
+            if (over <= EPS) break;
+            double h = t.getHours();
+            int last = (int) deadline(find(subjects, t.getSubject()), end);
+            // the day the dropped task left has just freed up: swapping is the smallest change
+            int to = from >= first && from <= last && from != day && fits(from, h, dailyHours, taken) ? from : -1;
+            for (int d = day + 1; d <= last && to < 0; d++) {
+                if (fits(d, h, dailyHours, taken)) to = d;
+            }
+            for (int d = day - 1; d >= first && to < 0; d--) {
+                if (fits(d, h, dailyHours, taken)) to = d;
+            }
+            if (to < 0) continue;
+            taken.merge(to, h, Double::sum);
+            diff.removed().add(t);
+            diff.added().add(t.withDate(LocalDate.ofEpochDay(to)));
+            over -= h;
+        }
+    }
+
+    /** How far a subject's done hours plus open hours from today are from its target, and those open tasks. */
+    private record Balance(double gap, List<Task> open) {}
+
+    private Balance balance(Subject s, LocalDate today) {
+        int first = (int) today.toEpochDay();
+        double done = 0, planned = 0;
+        List<Task> open = new ArrayList<>();
+        for (Task t : tasks.findBySubject(s.getName())) {
+            if (t.isDone()) {
+                done += t.getHours();
+            } else if (t.getEpochDay() >= first) {
+                planned += t.getHours();
+                open.add(t);
+            }
+        }
+        return new Balance(LocalScheduler.ceilHalf(s.getTargetHours()) - done - planned, open);
+    }
+
+    // Redistributes at most the ticked task's own hours, and only when it was dated before today
+    private void finished(Task t, Subject s, List<Subject> subjects, double dailyHours, LocalDate today, Diff diff) {
+        if (t.getEpochDay() >= today.toEpochDay()) return;
+        Balance b = balance(s, today);
+        double h = t.getHours();
+        if (t.isDone() && b.gap() <= -LocalScheduler.MIN_BLOCK + EPS) {
+            trim(b.open(), Math.min(-b.gap(), h), diff);
+        } else if (!t.isDone() && b.gap() >= LocalScheduler.MIN_BLOCK - EPS) {
+            extend(s, b.open(), Math.min(b.gap(), h), subjects, dailyHours, today, diff);
+        }
+    }
+
+    // Latest tasks first: drop whole tasks, shorten the last one if that is enough
+    private static void trim(List<Task> open, double surplus, Diff diff) {
+        open.sort(Comparator.comparingInt(Task::getEpochDay).reversed());
+        for (Task t : open) {
+            if (surplus < LocalScheduler.MIN_BLOCK - EPS) break;
+            double h = t.getHours();
+            diff.removed().add(t);
+            if (h <= surplus + EPS) {
+                surplus -= h;
+            } else {
+                double keep = Math.max(LocalScheduler.MIN_BLOCK, LocalScheduler.ceilHalf(h - surplus));
+                diff.added().add(t.withHours(keep));
+                surplus -= h - keep;
+            }
+        }
+    }
+
+    // Schedules the missing hours into free capacity; tops up an open task on the same day when it stays <= 3h
+    private void extend(Subject s, List<Task> open, double gap, List<Subject> subjects, double dailyHours,
+                        LocalDate today, Diff diff) {
+        Subject rest = new Subject(s.getName(), s.getDifficulty(), gap, s.getExamDate());
+        LocalDate end = LocalDate.ofEpochDay(planEnd(subjects, today));
+        LocalScheduler.Result r = LocalScheduler.schedule(List.of(rest),
+            day -> dailyHours - tasks.hoursOn((int) day), today, end);
+
+        Map<Integer, Task> sameDay = new HashMap<>();
+        for (Task t : open) sameDay.putIfAbsent(t.getEpochDay(), t);
+        for (LocalScheduler.Block b : r.blocks()) {
+            Task t = sameDay.get((int) b.date().toEpochDay());
+            if (t != null && t.getHours() + b.hours() <= LocalScheduler.MAX_BLOCK + EPS) {
+                diff.removed().add(t);
+                diff.added().add(t.withHours(t.getHours() + b.hours()));
+            } else {
+                diff.added().add(new Task(PlanParser.newId(), b.date(), s.getName(), b.hours(),
+                    AIService.getTaskTitle(s, b.hours()), false));
+            }
+        }
+    }
+
+    private boolean fits(int day, double hours, double dailyHours, Map<Integer, Double> taken) {
+        return tasks.hoursOn(day) + taken.getOrDefault(day, 0.0) + hours <= dailyHours + EPS;
+    }
+
+    // Last day of the plan: its last task or the last exam, whichever is later
+    private long planEnd(List<Subject> subjects, LocalDate today) {
+        LocalDate end = AIService.lastExamOf(subjects, today);
+        LocalDate last = tasks.lastDate();
+        return (last != null && last.isAfter(end) ? last : end).toEpochDay();
+    }
+
+    // Last day a subject may be studied: the day before its exam, else the plan end
+    private static long deadline(Subject s, long planEnd) {
+        if (s == null || s.getExamDate() == null) return planEnd;
+        return Math.min(planEnd, s.getExamDate().toEpochDay() - 1);
+    }
+
+    private static Subject find(List<Subject> subjects, String name) {
+        for (Subject s : subjects) {
+            if (s.getName().equals(name)) return s;
+        }
+        return null;
+    }
+}
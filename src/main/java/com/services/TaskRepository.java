@@ -0,0 +1,306 @@
+package com.services;
+
+import com.model.Task;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * In-memory task store (frontend only).
+ * Keeps an id index, a subject index and a date index keyed by epoch day in a
+ * sorted map, so lookups, moves and date-range queries (O(log n + k)) don't
+ * scan every task. The date index also keeps each day's total hours.
+ *
+ * The timetable shows one week at a time: the seven ObservableLists returned
+ * by view() hold only the tasks of the visible week (see showWeek), so their
+ * size and UI cost don't grow with the plan. Whole-plan observers (progress,
+ * persistence) use addListener instead.
+ *
+ * Whole plans can be indexed off the FX thread with prepare(); apply() then
+ * only swaps the indexes and refills the visible week.
+ */
+public class TaskRepository {
+
+    /** Told about every change to the plan, with the tasks removed and added (FX thread). */
+    @FunctionalInterface
+    public interface Listener {
+        void changed(Collection<Task> removed, Collection<Task> added);
+    }
+
+    private Map<String, Task> byId = new HashMap<>();
+    private NavigableMap<Integer, Set<Task>> byDay = new TreeMap<>();
+    private Map<String, Set<Task>> bySubject = new HashMap<>();
+    private Map<Integer, Long> dayHours = new HashMap<>(); // hundredths of an hour per epoch day
+    private final Map<DayOfWeek, ObservableList<Task>> week = new EnumMap<>(DayOfWeek.class);
+    private final List<Listener> listeners = new ArrayList<>();
+    private int weekStart; // epoch day of the visible Monday
+
+    public TaskRepository() {
+        for (DayOfWeek d : DayOfWeek.values()) {
+            week.put(d, FXCollections.observableArrayList());
+        }
+        weekStart = mondayOf((int) LocalDate.now().toEpochDay());
+    }
+
+    /** Live list of the visible week's tasks on the given weekday (bind ListViews to this). */
+    public ObservableList<Task> view(DayOfWeek d) {
+        return week.get(d);
+    }
+
+    public LocalDate getWeekStart() {
+        return LocalDate.ofEpochDay(weekStart);
+    }
+
+    /** The date shown for a weekday in the visible week. */
+    public LocalDate dateOf(DayOfWeek d) {
+        return LocalDate.ofEpochDay(weekStart + d.ordinal());
+    }
+
+    /** Makes the week containing the given date visible; one setAll per weekday list. */
+    public void showWeek(LocalDate anyDay) {
+        weekStart = mondayOf((int) anyDay.toEpochDay());
+        refillWeek();
+    }
+
+    public void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    public void removeListener(Listener l) {
+        listeners.remove(l);
+    }
+
+    public Task findById(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    public Collection<Task> findByDate(LocalDate date) {
+        Set<Task> set = byDay.get((int) date.toEpochDay());
+        return set == null ? List.of() : Collections.unmodifiableSet(set);
+    }
+
+    /** Tasks dated from..to (inclusive) in date order; O(log n + k). */
+    public List<Task> findByRange(LocalDate from, LocalDate to) {
+        List<Task> out = new ArrayList<>();
+        if (from.isAfter(to)) return out;
+        for (Set<Task> day : byDay.subMap((int) from.toEpochDay(), true, (int) to.toEpochDay(), true).values()) {
+            out.addAll(day);
+        }
+        return out;
+    }
+
+    /** Hours planned on an epoch day, done or not; O(1). */
+    public double hoursOn(int epochDay) {
+        Long h = dayHours.get(epochDay);
+        return h == null ? 0.0 : h / 100.0;
+    }
+
+    public Collection<Task> findBySubject(String subject) {
+        Set<Task> set = bySubject.get(subject);
+        return set == null ? List.of() : Collections.unmodifiableSet(set);
+    }
+
+    /** First and last planned date, or null when the plan is empty. */
+    public LocalDate firstDate() {
+        return byDay.isEmpty() ? null : LocalDate.ofEpochDay(byDay.firstKey());
+    }
+
+    public LocalDate lastDate() {
+        return byDay.isEmpty() ? null : LocalDate.ofEpochDay(byDay.lastKey());
+    }
+
+    public Collection<Task> all() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public void add(Task t) {
+        Task old = put(t);
+        fire(old == null ? List.of() : List.of(old), List.of(t));
+    }
+
+    /** Adds a batch with at most one addAll per visible weekday list. */
+    public void addAll(Collection<Task> tasks) {
+        update(List.of(), tasks);
+    }
+
+    /**
+     * Applies a diff as one change: removes the given tasks (by id), then adds
+     * the others, each replacing any task with its id (within the batch too,
+     * the last one wins). Listeners hear about it once.
+     */
+    public void update(Collection<Task> removed, Collection<Task> added) {
+        Map<String, Task> batch = new LinkedHashMap<>();
+        for (Task t : added) batch.put(t.getId(), t);
+        List<Task> gone = new ArrayList<>();
+        for (Task t : removed) {
+            Task old = byId.remove(t.getId());
+            if (old != null) {
+                unindex(old);
+                hide(old);
+                gone.add(old);
+            }
+        }
+        Map<DayOfWeek, List<Task>> visible = new EnumMap<>(DayOfWeek.class);
+        for (Task t : batch.values()) {
+            Task old = byId.put(t.getId(), t);
+            if (old != null) {
+                unindex(old);
+                hide(old);
+                gone.add(old);
+            }
+            index(t);
+            if (isVisible(t)) visible.computeIfAbsent(t.getDayOfWeek(), k -> new ArrayList<>()).add(t);
+        }
+        visible.forEach((d, list) -> week.get(d).addAll(list));
+        fire(gone, batch.values());
+    }
+
+    public Task remove(String id) {
+        Task t = byId.remove(id);
+        if (t == null) return null;
+        unindex(t);
+        hide(t);
+        fire(List.of(t), List.of());
+        return t;
+    }
+
+    /**
+     * Moves a task to another date. Only the source and target weekday lists
+     * are touched (if visible); returns the replacement task or null if the id
+     * is unknown.
+     */
+    public Task move(String id, LocalDate date) {
+        Task old = byId.remove(id);
+        if (old == null) return null;
+        unindex(old);
+        hide(old);
+        Task moved = old.withDate(date);
+        put(moved);
+        fire(List.of(old), List.of(moved));
+        return moved;
+    }
+
+    /** A whole plan already indexed, ready for apply(). */
+    public static final class Prepared {
+        private final Map<String, Task> byId = new HashMap<>();
+        private final NavigableMap<Integer, Set<Task>> byDay = new TreeMap<>();
+        private final Map<String, Set<Task>> bySubject = new HashMap<>();
+        private final Map<Integer, Long> dayHours = new HashMap<>();
+
+        public int size() {
+            return byId.size();
+        }
+    }
+
+    /**
+     * Builds the indexes for a whole plan. Touches no shared state, so it can
+     * run on any thread; a later id wins over an earlier duplicate.
+     */
+    public static Prepared prepare(Collection<Task> tasks) {
+        Prepared p = new Prepared();
+        for (Task t : tasks) {
+            Task old = p.byId.put(t.getId(), t);
+            if (old != null) unindex(p.byDay, p.bySubject, p.dayHours, old);
+            index(p.byDay, p.bySubject, p.dayHours, t);
+        }
+        return p;
+    }
+
+    /** Installs a prepared plan (FX thread): swaps the indexes and refills the visible week. */
+    public void apply(Prepared p) {
+        Collection<Task> old = byId.values();
+        byId = p.byId;
+        byDay = p.byDay;
+        bySubject = p.bySubject;
+        dayHours = p.dayHours;
+        refillWeek();
+        fire(old, byId.values());
+    }
+
+    /** Replaces the whole plan; each weekday list receives a single setAll. */
+    public void replaceAll(Collection<Task> tasks) {
+        apply(prepare(tasks));
+    }
+
+    public void clear() {
+        replaceAll(List.of());
+    }
+
+    // Indexes t (replacing any task with the same id) and shows it if visible; returns the replaced task
+    private Task put(Task t) {
+        Task old = byId.put(t.getId(), t);
+        if (old != null) {
+            unindex(old);
+            hide(old);
+        }
+        index(t);
+        if (isVisible(t)) week.get(t.getDayOfWeek()).add(t);
+        return old;
+    }
+
+    private void refillWeek() {
+        for (DayOfWeek d : DayOfWeek.values()) {
+            Set<Task> day = byDay.get(weekStart + d.ordinal());
+            week.get(d).setAll(day == null ? List.of() : day);
+        }
+    }
+
+    private boolean isVisible(Task t) {
+        int day = t.getEpochDay();
+        return day >= weekStart && day < weekStart + 7;
+    }
+
+    private void hide(Task t) {
+        if (isVisible(t)) week.get(t.getDayOfWeek()).remove(t);
+    }
+
+    private void fire(Collection<Task> removed, Collection<Task> added) {
+        for (Listener l : listeners) l.changed(removed, added);
+    }
+
+    private static int mondayOf(int epochDay) {
+        // epoch day 0 (1970-01-01) was a Thursday
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    private void index(Task t) {
+        index(byDay, bySubject, dayHours, t);
+    }
+
+    private void unindex(Task t) {
+        unindex(byDay, bySubject, dayHours, t);
+    }
+
+    private static void index(Map<Integer, Set<Task>> byDay, Map<String, Set<Task>> bySubject,
+                              Map<Integer, Long> dayHours, Task t) {
+        if (byDay.computeIfAbsent(t.getEpochDay(), k -> new LinkedHashSet<>()).add(t)) {
+            dayHours.merge(t.getEpochDay(), Math.round(t.getHours() * 100), Long::sum);
+        }
+        bySubject.computeIfAbsent(t.getSubject(), k -> new LinkedHashSet<>()).add(t);
+    }
+
+    private static void unindex(Map<Integer, Set<Task>> byDay, Map<String, Set<Task>> bySubject,
+                                Map<Integer, Long> dayHours, Task t) {
+        Set<Task> day = byDay.get(t.getEpochDay());
+        if (day != null && day.contains(t)) {
+            long h = dayHours.merge(t.getEpochDay(), -Math.round(t.getHours() * 100), Long::sum);
+            if (day.size() == 1 || h == 0) dayHours.remove(t.getEpochDay());
+        }
+        removeFrom(byDay, t.getEpochDay(), t);
+        removeFrom(bySubject, t.getSubject(), t);
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Task>> index, K key, Task t) {
+        Set<Task> set = index.get(key);
+        if (set == null) return;
+        set.remove(t);
+        if (set.isEmpty()) index.remove(key);
+    }
+}
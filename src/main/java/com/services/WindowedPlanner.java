@@ -0,0 +1,148 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import com.util.Metrics;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Plans long ranges as week-sized model calls instead of one huge one, so the
+ * reply fits in max_new_tokens and the whole plan takes about as long as one
+ * window.
+ *
+ * Per-window hour budgets come from the local scheduler run over the full
+ * range: each subject's remaining hours carry from one window to the next, so
+ * every window's request is known up front and they can all run in parallel
+ * (bounded by the pool). Results are merged in date order; each window's plan
+ * goes through PlanRepair, and a window that fails or has no usable tasks
+ * left is filled with its local blocks instead.
+ */
+public class WindowedPlanner {
+
+    public static final int WINDOW_DAYS = 7;
+
+    /** One week of the plan: its dates, the subjects with their budget for it, and the local fallback. */
+    record Window(LocalDate start, LocalDate end, List<Subject> subjects, String localPlan) {}
+
+    private static final Metrics.Counter FALLBACKS = Metrics.counter("fallback.window");
+    private static final Metrics.Counter REPAIRED = Metrics.counter("repair.window");
+    private static final Logger LOG = Logger.getLogger(WindowedPlanner.class.getName());
+
+    private final ExecutorService pool;
+
+    public WindowedPlanner(int maxParallel) {
+        AtomicInteger n = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(maxParallel, r -> {
+            Thread t = new Thread(r, "plan-window-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** True if [start, end] is longer than one window. */
+    public static boolean spansWindows(LocalDate start, LocalDate end) {
+        return end.toEpochDay() - start.toEpochDay() >= WINDOW_DAYS;
+    }
+
+    /**
+     * Merged plan text for [start, end], or null if no window produced a usable
+     * model plan. Throws ModelUnavailableException if every window failed that way.
+     */
+    public String plan(String apiKey, List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end)
+            throws IOException, InterruptedException {
+        List<Window> windows = split(subjects, dailyHours, start, end);
+        List<Future<String>> calls = new ArrayList<>(windows.size());
+        for (Window w : windows) {
+            calls.add(pool.submit(() -> AIService.remotePlan(apiKey, w.subjects(), dailyHours, w.start(), w.end())));
+        }
+
+        StringBuilder merged = new StringBuilder();
+        int fallbacks = 0;
+        int repaired = 0;
+        IOException failure = null;
+        try {
+            for (int i = 0; i < windows.size(); i++) {
+                Window w = windows.get(i);
+                String text = null;
+                try {
+                    text = calls.get(i).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException io) failure = io;
+                    else if (cause instanceof RuntimeException re) throw re;
+                    else throw new IOException(cause);
+                }
+                List<Task> tasks = new ArrayList<>();
+                if (text != null) new PlanParser(tasks::add).parse(text);
+                PlanRepair.Result fixed = PlanRepair.repair(tasks, w.subjects(), dailyHours, w.start(), w.end());
+                if (fixed.report().isClean() && !tasks.isEmpty()) {
+                    merged.append(text);
+                    if (!text.endsWith("\n")) merged.append('\n');
+                } else if (!fixed.tasks().isEmpty()) {
+                    repaired++;
+                    REPAIRED.inc();
+                    merged.append(AIService.planText(fixed.tasks()));
+                } else {
+                    fallbacks++;
+                    FALLBACKS.inc();
+                    merged.append(w.localPlan());
+                }
+            }
+        } finally {
+            for (Future<String> f : calls) f.cancel(true);
+        }
+
+        if (fallbacks == windows.size()) {
+            if (failure != null) throw new ModelClient.ModelUnavailableException(failure.getMessage(), failure);
+            return null;
+        }
+        if (fallbacks > 0) LOG.info(fallbacks + " of " + windows.size() + " windows used the local plan");
+        if (repaired > 0) LOG.info(repaired + " of " + windows.size() + " windows were repaired");
+        return merged.toString();
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Week windows with the budget the local schedule gives each subject in them; empty weeks are skipped
+    static List<Window> split(List<Subject> subjects, double dailyHours, LocalDate start, LocalDate end) {
+        long first = start.toEpochDay();
+        int count = (int) ((end.toEpochDay() - first) / WINDOW_DAYS) + 1;
+        List<Map<Subject, Double>> budgets = new ArrayList<>(count);
+        List<StringBuilder> local = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            budgets.add(new LinkedHashMap<>());
+            local.add(new StringBuilder());
+        }
+        for (LocalScheduler.Block b : LocalScheduler.schedule(subjects, dailyHours, start, end).blocks()) {
+            int w = (int) ((b.date().toEpochDay() - first) / WINDOW_DAYS);
+            budgets.get(w).merge(b.subject(), b.hours(), Double::sum);
+            AIService.appendBlock(local.get(w), b);
+        }
+
+        List<Window> windows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (budgets.get(i).isEmpty()) continue;
+            LocalDate ws = start.plusDays((long) i * WINDOW_DAYS);
+            LocalDate we = ws.plusDays(WINDOW_DAYS - 1);
+            if (we.isAfter(end)) we = end;
+            List<Subject> subs = new ArrayList<>(budgets.get(i).size());
+            for (Map.Entry<Subject, Double> e : budgets.get(i).entrySet()) {
+                Subject s = e.getKey();
+                LocalDate exam = s.getExamDate();
+                // an exam after this window is not this window's deadline
+                if (exam != null && exam.isAfter(we)) exam = null;
+                subs.add(new Subject(s.getName(), s.getDifficulty(), e.getValue(), exam));
+            }
+            windows.add(new Window(ws, we, subs, local.get(i).toString()));
+        }
+        return windows;
+    }
+}
@@ -1,5 +1,6 @@
 package com.studyplannerfx;
 
+import com.util.Metrics;
 import javafx.animation.FadeTransition;
 import javafx.animation.ScaleTransition;
 import javafx.application.Application;
@@ -10,15 +11,18 @@ import javafx.util.Duration;
 
 /**
  * Entry point for the Study Planner (Frontend-only).
- * No database. All data is in-memory.
+ * No database. Data is in-memory and autosaved to a local plan file (see PlanStore).
  * Includes a simple dark/light theme toggle and startup animation.
  */
 public class App extends Application {
 
+    private DashboardView dashboard;
+
     @Override
     public void start(Stage stage) {
+        Metrics.startFromProperties();
         StackPane root = new StackPane();
-        DashboardView dashboard = new DashboardView();
+        dashboard = new DashboardView();
         root.getChildren().add(dashboard.getRoot());
 
         Scene scene = new Scene(root, 1200, 800);
@@ -53,6 +57,12 @@ public class App extends Application {
         fade.play();
     }
 
+    @Override
+    public void stop() {
+        if (dashboard != null) dashboard.close();
+        Metrics.stop();
+    }
+
     public static void main(String[] args) {
         launch();
     }
@@ -0,0 +1,171 @@
+package com.studyplannerfx;
+
+import javafx.geometry.HPos;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Month calendar with a fixed pool of 6x7 day cells.
+ * Cells and grid constraints are built once; changing month only rebinds
+ * the cells' text and load, so paging through years stays cheap no matter
+ * how many tasks the plan holds. Per-day load comes from a date-indexed
+ * source (hours scheduled on that date); with a fill source (load as a
+ * fraction of the daily limit) the cells are shaded as a heatmap and
+ * overloaded days are marked.
+ */
+public class CalendarView {
+
+    private static final int WEEKS = 6;
+    private static final String[] HEAT = {null, "heat-1", "heat-2", "heat-3", "overloaded"};
+
+    private final VBox root = new VBox(6);
+    private final GridPane grid = new GridPane();
+    private final Label monthLabel = new Label();
+    private final VBox[] cells = new VBox[WEEKS * 7];
+    private final Label[] dayLabels = new Label[WEEKS * 7];
+    private final Label[] loadLabels = new Label[WEEKS * 7];
+    private final LocalDate[] cellDates = new LocalDate[WEEKS * 7];
+    private final int[] heat = new int[WEEKS * 7];
+
+    private YearMonth month = YearMonth.now();
+    private ToDoubleFunction<LocalDate> loadSource = d -> 0.0;
+    private ToDoubleFunction<LocalDate> fillSource = d -> 0.0;
+    private Consumer<LocalDate> onDaySelected = d -> { };
+
+    public CalendarView() {
+        Button prevYear = new Button("«");
+        Button prev = new Button("‹");
+        Button next = new Button("›");
+        Button nextYear = new Button("»");
+        Button today = new Button("Today");
+        prevYear.setOnAction(e -> show(month.minusYears(1)));
+        prev.setOnAction(e -> show(month.minusMonths(1)));
+        next.setOnAction(e -> show(month.plusMonths(1)));
+        nextYear.setOnAction(e -> show(month.plusYears(1)));
+        today.setOnAction(e -> show(YearMonth.now()));
+        monthLabel.getStyleClass().add("section-title");
+        monthLabel.setMinWidth(120);
+        monthLabel.setAlignment(Pos.CENTER);
+        HBox nav = new HBox(6, prevYear, prev, monthLabel, next, nextYear, today);
+        nav.setAlignment(Pos.CENTER_LEFT);
+
+        grid.getStyleClass().add("calendar");
+        for (int i = 0; i < 7; i++) {
+            ColumnConstraints cc = new ColumnConstraints();
+            cc.setPercentWidth(100.0 / 7);
+            grid.getColumnConstraints().add(cc);
+        }
+        for (int i = 0; i <= WEEKS; i++) {
+            RowConstraints rc = new RowConstraints();
+            rc.setPercentHeight(100.0 / (WEEKS + 1));
+            grid.getRowConstraints().add(rc);
+        }
+        String[] days = {"Mon","Tue","Wed","Thu","Fri","Sat","Sun"};
+        for (int i = 0; i < 7; i++) {
+            Label l = new Label(days[i]);
+            l.getStyleClass().add("muted");
+            GridPane.setHalignment(l, HPos.CENTER);
+            grid.add(l, i, 0);
+        }
+        for (int i = 0; i < cells.length; i++) {
+            Label dl = new Label();
+            Label load = new Label();
+            load.getStyleClass().addAll("muted", "calendar-load");
+            VBox cell = new VBox(2, dl, load);
+            cell.setPadding(new Insets(6));
+            cell.getStyleClass().add("calendar-cell");
+            int index = i;
+            cell.setOnMouseClicked(e -> {
+                if (cellDates[index] != null) onDaySelected.accept(cellDates[index]);
+            });
+            cells[i] = cell;
+            dayLabels[i] = dl;
+            loadLabels[i] = load;
+            grid.add(cell, i % 7, 1 + i / 7);
+        }
+
+        root.getChildren().addAll(nav, grid);
+        VBox.setVgrow(grid, Priority.ALWAYS);
+        show(month);
+    }
+
+    public VBox getRoot() {
+        return root;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    /** Hours scheduled on a date; queried only for the visible cells. */
+    public void setLoadSource(ToDoubleFunction<LocalDate> loadSource) {
+        this.loadSource = loadSource;
+        refreshLoads();
+    }
+
+    /** Load of a date relative to the daily limit (1.0 = full, above = overloaded), for the heatmap. */
+    public void setFillSource(ToDoubleFunction<LocalDate> fillSource) {
+        this.fillSource = fillSource;
+        refreshLoads();
+    }
+
+    /** Called with the date of a clicked day. */
+    public void setOnDaySelected(Consumer<LocalDate> onDaySelected) {
+        this.onDaySelected = onDaySelected;
+    }
+
+    /** Rebinds the pooled cells to the given month. */
+    public void show(YearMonth ym) {
+        month = ym;
+        monthLabel.setText(ym.getMonth().getDisplayName(TextStyle.SHORT, Locale.getDefault()) + " " + ym.getYear());
+        LocalDate first = ym.atDay(1);
+        int shift = (first.getDayOfWeek().getValue() + 6) % 7; // Monday=0
+        int length = ym.lengthOfMonth();
+        for (int i = 0; i < cells.length; i++) {
+            int day = i - shift + 1;
+            boolean inMonth = day >= 1 && day <= length;
+            cellDates[i] = inMonth ? ym.atDay(day) : null;
+            cells[i].setVisible(inMonth);
+            dayLabels[i].setText(inMonth ? Integer.toString(day) : "");
+        }
+        refreshLoads();
+    }
+
+    /** Re-reads the load of the visible days (42 lookups at most); style classes change only with the level. */
+    public void refreshLoads() {
+        for (int i = 0; i < cells.length; i++) {
+            LocalDate d = cellDates[i];
+            double h = d == null ? 0.0 : loadSource.applyAsDouble(d);
+            loadLabels[i].setText(h > 0 ? formatHours(h) : "");
+            int level = h > 0 ? heatLevel(fillSource.applyAsDouble(d)) : 0;
+            if (level != heat[i]) {
+                if (HEAT[heat[i]] != null) cells[i].getStyleClass().remove(HEAT[heat[i]]);
+                if (HEAT[level] != null) cells[i].getStyleClass().add(HEAT[level]);
+                heat[i] = level;
+            }
+        }
+    }
+
+    // 1: under half the limit, 2: under 85%, 3: up to full, 4: over
+    static int heatLevel(double fill) {
+        if (fill <= 0) return 0;
+        if (fill > 1.0 + 1e-9) return 4;
+        return fill < 0.5 ? 1 : fill < 0.85 ? 2 : 3;
+    }
+
+    // hours are kept in 0.5 steps, so one decimal is enough and avoids String.format
+    static String formatHours(double h) {
+        long tenths = Math.round(h * 10);
+        return (tenths / 10) + "." + (tenths % 10) + "h";
+    }
+}
@@ -2,13 +2,19 @@ package com.studyplannerfx;
 
 import com.model.Subject;
 import com.model.Task;
-import com.services.AIService;
+import com.services.DayLoadIndex;
+import com.services.GenerationService;
+import com.services.PlanExporter;
+import com.services.PlanStore;
+import com.services.ProgressTracker;
+import com.services.Replanner;
+import com.services.TaskRepository;
+import com.util.FxBatcher;
+import com.util.Metrics;
 import com.util.UI;
 import javafx.application.Platform;
-import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -17,17 +23,18 @@ import javafx.scene.control.*;
 import javafx.scene.input.*;
 import javafx.scene.layout.*;
 import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
 
-import java.lang.classfile.Label;
+import java.io.File;
+import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.YearMonth;
+import java.time.format.TextStyle;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
-
-import javax.swing.plaf.synth.Region;
-import javax.swing.text.html.ListView;
 
 /**
  * Main dashboard view (View + Controller for simplicity).
@@ -50,6 +57,12 @@ public class DashboardView {
     private final Spinner<Double> hoursSpinner = new Spinner<>(1.0, 16.0, 3.0, 0.5);
     // API key is hardcoded for interview demo
    String HF_TOKEN = System.getenv("HF_TOKEN");
+    // How long the model may take to replace the local plan; 0 streams the model's plan instead
+    private static final long HEDGE_DEADLINE_MS = Long.getLong("planner.hedge.deadlineMs", 5_000);
+
+    private static final Metrics.Timer FX_APPLY = Metrics.timer("fx.apply");
+    private static final Metrics.Timer FIRST_PLAN = Metrics.timer("generation.firstPlan");
+    private static final Metrics.Timer GENERATION = Metrics.timer("generation.total");
 
 
     // Top bar
@@ -57,16 +70,33 @@ public class DashboardView {
     private Consumer<Boolean> themeSwitcher;
 
     // Center
-    private final GridPane calendar = new GridPane();
+    private final CalendarView calendar = new CalendarView();
     private final PieChart progressChart = new PieChart();
+    private final PieChart.Data doneSlice = new PieChart.Data("Done", 0);
+    private final PieChart.Data remainingSlice = new PieChart.Data("Remaining", 100);
+    private boolean progressPending;
 
     // Timetable tabs
     private final TabPane timetableTabs = new TabPane();
     private final Map<DayOfWeek, ListView<Task>> taskLists = new EnumMap<>(DayOfWeek.class);
-    private final Map<DayOfWeek, ObservableList<Task>> tasksByDay = new EnumMap<>(DayOfWeek.class);
+    private final Label weekLabel = new Label();
+    private final TaskRepository tasks = new TaskRepository();
+    private final ProgressTracker progress = new ProgressTracker(tasks);
+    private final PlanStore store = new PlanStore(PlanStore.defaultFile());
+    private final Replanner replanner = new Replanner(tasks);
+    private final DayLoadIndex loads = new DayLoadIndex(tasks, hoursSpinner.getValue());
 
     // Overlay
     private final StackPane overlay = new StackPane();
+    private final ProgressIndicator overlaySpinner = new ProgressIndicator();
+    private final Label overlayLabel = new Label();
+    private Runnable overlayCancel = () -> { };
+    // Shown while the model's plan may still replace the local one
+    private final Button cancelAiBtn = new Button("Cancel AI");
+
+    // Generation (bounded worker pool; newer requests supersede older ones)
+    private final GenerationService generator = new GenerationService(2);
+    private long generation;
 
     // Quotes (static for frontend simplicity)
     private final List<String> quotes = List.of(
@@ -79,9 +109,56 @@ public class DashboardView {
 
     public DashboardView() {
         buildUI();
-        refreshCalendar(YearMonth.now());
-        refreshProgress();
+        calendar.setLoadSource(loads::day);
+        calendar.setFillSource(loads::fill);
+        // Overloaded days are flagged as tasks move or the daily limit changes
+        loads.setOnOverloadChange(date -> {
+            if (!date.isBefore(tasks.getWeekStart()) && date.isBefore(tasks.getWeekStart().plusWeeks(1))) {
+                markOverloaded(date.getDayOfWeek());
+            }
+        });
+        hoursSpinner.valueProperty().addListener((o, was, hours) -> {
+            loads.setDailyLimit(hours);
+            calendar.refreshLoads();
+        });
+        progressChart.setData(FXCollections.observableArrayList(doneSlice, remainingSlice));
+        progress.setOnChange(this::refreshProgress);
         applyDndAcrossAllDays();
+        restorePlan();
+    }
+
+    /** Flushes pending autosave writes; call when the app exits. */
+    public void close() {
+        generator.shutdown();
+        store.close();
+    }
+
+    // Loads the saved plan, then starts logging changes to it. An unreadable
+    // file is kept aside and a new log started, so autosave is never left off.
+    private void restorePlan() {
+        try {
+            PlanStore.Snapshot snap = store.load();
+            subjects.setAll(snap.subjects());
+            tasks.replaceAll(snap.tasks());
+        } catch (Exception ex) {
+            try {
+                Path aside = store.setAside();
+                Platform.runLater(() -> UI.warn("Saved Plan Unreadable",
+                    "The saved plan could not be read (" + ex.getMessage() + ") and was kept as "
+                        + aside.getFileName() + ". Starting with an empty plan."));
+            } catch (Exception moveEx) {
+                Platform.runLater(() -> UI.warn("Autosave Off",
+                    "The saved plan could not be read or moved aside (" + moveEx.getMessage()
+                        + "). Changes in this session will not be saved."));
+                return;
+            }
+        }
+        try {
+            store.attach(tasks, subjects);
+        } catch (Exception ex) {
+            Platform.runLater(() -> UI.warn("Autosave Off",
+                "Changes in this session will not be saved: " + ex.getMessage()));
+        }
     }
 
     public Node getRoot() {
@@ -98,17 +175,23 @@ public class DashboardView {
         overlay.setPickOnBounds(true);
         VBox box = new VBox(10);
         box.setAlignment(Pos.CENTER);
-        ProgressIndicator spinner = new ProgressIndicator();
-        spinner.setPrefSize(64, 64);
-        Label lbl = new Label("Thinking...");
-        lbl.getStyleClass().add("muted");
-        box.getChildren().addAll(spinner, lbl);
+        overlaySpinner.setPrefSize(64, 64);
+        overlayLabel.getStyleClass().add("muted");
+        Button cancel = new Button("Cancel");
+        cancel.setOnAction(e -> overlayCancel.run());
+        box.getChildren().addAll(overlaySpinner, overlayLabel, cancel);
         overlay.getStyleClass().add("overlay");
         overlay.getChildren().add(box);
         return wrap;
     }
 
     private void setLoading(boolean on) {
+        if (on) {
+            overlaySpinner.progressProperty().unbind();
+            overlaySpinner.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+            overlayLabel.setText("Thinking...");
+            overlayCancel = this::onCancelGenerate;
+        }
         overlay.setVisible(on);
         UI.fade(overlay, on ? 1.0 : 0.0, 200);
     }
@@ -125,8 +208,8 @@ public class DashboardView {
         generateBtn.getStyleClass().add("primary");
         generateBtn.setOnAction(e -> onGenerateAI());
 
-        Button exportBtn = new Button("Export (Preview-only)");
-        exportBtn.setOnAction(e -> UI.info("Export", "This frontend-only build does not export files."));
+        Button exportBtn = new Button("Export");
+        exportBtn.setOnAction(e -> onExport());
 
         themeToggle.setOnAction(e -> {
             boolean dark = themeToggle.isSelected();
@@ -137,7 +220,12 @@ public class DashboardView {
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        top.getChildren().addAll(title, spacer, generateBtn, exportBtn, themeToggle);
+        cancelAiBtn.setTooltip(new Tooltip("Keep this plan and stop waiting for the AI's"));
+        cancelAiBtn.setOnAction(e -> onCancelGenerate());
+        cancelAiBtn.managedProperty().bind(cancelAiBtn.visibleProperty());
+        cancelAiBtn.setVisible(false);
+
+        top.getChildren().addAll(title, spacer, cancelAiBtn, generateBtn, exportBtn, themeToggle);
         root.setTop(top);
 
         // Left: subjects/settings
@@ -157,7 +245,10 @@ public class DashboardView {
         addSubject.setOnAction(e -> addSubjectDialog());
         deleteSubject.setOnAction(e -> {
             Subject s = subjectsList.getSelectionModel().getSelectedItem();
-            if (s != null) subjects.remove(s);
+            if (s != null) {
+                subjects.remove(s);
+                replan(new Replanner.SubjectRemoved(s.getName()));
+            }
         });
 
         Separator sep1 = new Separator();
@@ -194,9 +285,8 @@ public class DashboardView {
         VBox calendarBox = new VBox(8);
         Label calTitle = new Label("Calendar");
         calTitle.getStyleClass().add("section-title");
-        calendar.getStyleClass().add("calendar");
-        calendarBox.getChildren().addAll(calTitle, calendar);
-        VBox.setVgrow(calendar, Priority.ALWAYS);
+        calendarBox.getChildren().addAll(calTitle, calendar.getRoot());
+        VBox.setVgrow(calendar.getRoot(), Priority.ALWAYS);
 
         VBox progressBox = new VBox(8);
         Label progTitle = new Label("Progress");
@@ -211,9 +301,21 @@ public class DashboardView {
         VBox timetableBox = new VBox(8);
         Label tTitle = new Label("Timetable (Drag between days; check to mark done)");
         tTitle.getStyleClass().add("section-title");
+        // Week paging: the tabs only ever hold the visible week
+        Button prevWeek = new Button("‹");
+        Button nextWeek = new Button("›");
+        Button thisWeek = new Button("This Week");
+        prevWeek.setOnAction(e -> showWeek(tasks.getWeekStart().minusWeeks(1)));
+        nextWeek.setOnAction(e -> showWeek(tasks.getWeekStart().plusWeeks(1)));
+        thisWeek.setOnAction(e -> showWeek(LocalDate.now()));
+        calendar.setOnDaySelected(this::showWeek);
+        Region tSpacer = new Region();
+        HBox.setHgrow(tSpacer, Priority.ALWAYS);
+        HBox tHeader = new HBox(6, tTitle, tSpacer, prevWeek, weekLabel, nextWeek, thisWeek);
+        tHeader.setAlignment(Pos.CENTER_LEFT);
         buildTimetableTabs();
         VBox.setVgrow(timetableTabs, Priority.ALWAYS);
-        timetableBox.getChildren().addAll(tTitle, timetableTabs);
+        timetableBox.getChildren().addAll(tHeader, timetableTabs);
 
         center.getChildren().addAll(topRow, new Separator(), timetableBox);
         VBox.setVgrow(timetableBox, Priority.ALWAYS);
@@ -222,42 +324,46 @@ public class DashboardView {
 
     private void buildTimetableTabs() {
         timetableTabs.getTabs().clear();
-        tasksByDay.clear();
         taskLists.clear();
         for (DayOfWeek d : DayOfWeek.values()) {
-            ObservableList<Task> list = FXCollections.observableArrayList();
-            tasksByDay.put(d, list);
-            ListView<Task> lv = new ListView<>(list);
+            ListView<Task> lv = new ListView<>(tasks.view(d));
             lv.setCellFactory(v -> taskCell());
             taskLists.put(d, lv);
             Tab tab = new Tab(d.name(), lv);
             tab.setClosable(false);
             timetableTabs.getTabs().add(tab);
         }
+        updateWeekTitles();
+    }
+
+    private void showWeek(LocalDate anyDay) {
+        tasks.showWeek(anyDay);
+        updateWeekTitles();
+    }
+
+    private void updateWeekTitles() {
+        weekLabel.setText("Week of " + tasks.getWeekStart());
+        for (DayOfWeek d : DayOfWeek.values()) {
+            LocalDate date = tasks.dateOf(d);
+            timetableTabs.getTabs().get(d.ordinal()).setText(
+                d.getDisplayName(TextStyle.SHORT, Locale.getDefault()) + " " + date.getDayOfMonth() + " "
+                    + date.getMonth().getDisplayName(TextStyle.SHORT, Locale.getDefault()));
+            markOverloaded(d);
+        }
+    }
+
+    private void markOverloaded(DayOfWeek d) {
+        Tab tab = timetableTabs.getTabs().get(d.ordinal());
+        tab.getStyleClass().remove("overloaded");
+        if (loads.isOverloaded(tasks.dateOf(d))) tab.getStyleClass().add("overloaded");
     }
 
     private ListCell<Task> taskCell() {
-        return new ListCell<>() {
-            private final CheckBox check = new CheckBox();
-            private final Label label = new Label();
-            private final HBox box = new HBox(8, check, label);
-            {
-                box.setAlignment(Pos.CENTER_LEFT);
-            }
-            @Override protected void updateItem(Task item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || item == null) {
-                    setGraphic(null);
-                } else {
-                    check.setSelected(item.isDone());
-                    label.textProperty().bind(Bindings.createStringBinding(
-                        () -> String.format("[%s] %s • %.1fh", item.getSubject(), item.getTitle(), item.getHours()),
-                        item.doneProperty(), item.titleProperty(), item.hoursProperty()));
-                    check.setOnAction(e -> item.setDone(check.isSelected()));
-                    setGraphic(box);
-                }
-            }
-        };
+        return new TaskCell((item, done) -> {
+            item.setDone(done); // the progress tracker hears about it from the task
+            store.recordDone(item);
+            replan(new Replanner.Finished(item));
+        });
     }
 
     private void applyDndAcrossAllDays() {
@@ -285,16 +391,11 @@ public class DashboardView {
                 Dragboard db = ev.getDragboard();
                 boolean ok = false;
                 if (db.hasString()) {
-                    String id = db.getString();
-                    Task dragged = findTaskById(id);
-                    if (dragged != null) {
-                        // remove from its list
-                        tasksByDay.values().forEach(list -> list.remove(dragged));
-                        // add to target
-                        tasksByDay.get(d).add(dragged.withDate(nextDateOf(d)));
-                        ok = true;
-                        refreshProgress();
-                    }
+                    // indexed move to the real date of the target tab, then make room around it
+                    Task before = tasks.findById(db.getString());
+                    Task moved = before == null ? null : tasks.move(before.getId(), tasks.dateOf(d));
+                    if (moved != null) replan(new Replanner.Moved(moved, before.getDate()));
+                    ok = moved != null;
                 }
                 ev.setDropCompleted(ok);
                 ev.consume();
@@ -302,13 +403,6 @@ public class DashboardView {
         }
     }
 
-    private Task findTaskById(String id) {
-        for (ObservableList<Task> list : tasksByDay.values()) {
-            for (Task t : list) if (Objects.equals(t.getId(), id)) return t;
-        }
-        return null;
-    }
-
     private void addSubjectDialog() {
         Dialog<Subject> dialog = new Dialog<>();
         dialog.setTitle("Add Subject");
@@ -339,68 +433,33 @@ public class DashboardView {
         });
 
         Optional<Subject> res = dialog.showAndWait();
-        res.ifPresent(subjects::add);
+        res.ifPresent(s -> {
+            subjects.add(s);
+            replan(new Replanner.SubjectAdded(s));
+        });
     }
 
-    private void refreshCalendar(YearMonth ym) {
-        calendar.getChildren().clear();
-        calendar.getColumnConstraints().clear();
-        calendar.getRowConstraints().clear();
-        for (int i = 0; i < 7; i++) {
-            ColumnConstraints cc = new ColumnConstraints();
-            cc.setPercentWidth(100.0/7);
-            calendar.getColumnConstraints().add(cc);
-        }
-        for (int i = 0; i < 7; i++) {
-            RowConstraints rc = new RowConstraints();
-            rc.setPercentHeight(100.0/7);
-            calendar.getRowConstraints().add(rc);
-        }
-
-        String[] days = {"Mon","Tue","Wed","Thu","Fri","Sat","Sun"};
-        for (int i=0;i<7;i++) {
-            Label l = new Label(days[i]);
-            l.getStyleClass().add("muted");
-            GridPane.setHalignment(l, HPos.CENTER);
-            calendar.add(l, i, 0);
-        }
-
-        LocalDate first = ym.atDay(1);
-        int shift = (first.getDayOfWeek().getValue()+6)%7; // Monday=0
-        int length = ym.lengthOfMonth();
-
-        int row = 1;
-        int col = shift;
-        for (int day=1; day<=length; day++) {
-            LocalDate date = ym.atDay(day);
-            VBox cell = new VBox(4);
-            cell.setPadding(new Insets(6));
-            cell.getStyleClass().add("calendar-cell");
-            Label dl = new Label(String.valueOf(day));
-            cell.getChildren().add(dl);
-            calendar.add(cell, col, row);
-            col++;
-            if (col>6) { col=0; row++; }
-        }
+    // Adjusts the current plan around one change instead of regenerating it
+    private void replan(Replanner.Change change) {
+        // an edit made while the model's plan is pending keeps the edited plan
+        if (cancelAiBtn.isVisible()) onCancelGenerate();
+        if (tasks.size() == 0) return;
+        replanner.apply(change, new ArrayList<>(subjects), hoursSpinner.getValue(), LocalDate.now());
     }
 
+    // Coalesces progress changes into one update per pulse: chart slices in place, calendar loads for visible days
     private void refreshProgress() {
-        List<Task> all = tasksByDay.values().stream()
-            .flatMap(Collection::stream).toList();
-        long total = all.size();
-        long done = all.stream().filter(Task::isDone).count();
-        double pct = total == 0 ? 0.0 : (done * 100.0 / total);
-
-        PieChart.Data d1 = new PieChart.Data("Done", pct);
-        PieChart.Data d2 = new PieChart.Data("Remaining", Math.max(0, 100 - pct));
-        progressChart.setData(FXCollections.observableArrayList(d1, d2));
-    }
-
-    private LocalDate nextDateOf(DayOfWeek d) {
-        LocalDate today = LocalDate.now();
-        int diff = d.getValue() - today.getDayOfWeek().getValue();
-        if (diff < 0) diff += 7;
-        return today.plusDays(diff);
+        if (progressPending) return;
+        progressPending = true;
+        Platform.runLater(() -> {
+            long t0 = FX_APPLY.start();
+            progressPending = false;
+            double pct = progress.overall().getPercent();
+            doneSlice.setPieValue(pct);
+            remainingSlice.setPieValue(Math.max(0, 100 - pct));
+            calendar.refreshLoads();
+            FX_APPLY.stop(t0);
+        });
     }
 
     private void onGenerateAI() {
@@ -413,27 +472,125 @@ public class DashboardView {
             return;
         }
 
-        setLoading(true);
-        new Thread(() -> {
-            try {
-                String plan = AIService.generatePlanFromHF(API_KEY, subs, dailyHours);
-                List<Task> tasks = AIService.parseTasksFromText(plan);
-                // Clear current and apply new tasks grouped by weekday
-                Platform.runLater(() -> {
-                    tasksByDay.values().forEach(ObservableList::clear);
-                    Map<DayOfWeek, List<Task>> map = tasks.stream().collect(Collectors.groupingBy(t ->
-                        t.getDate().getDayOfWeek()));
-                    for (DayOfWeek d : DayOfWeek.values()) {
-                        tasksByDay.get(d).addAll(map.getOrDefault(d, List.of()));
-                    }
-                    refreshProgress();
-                    UI.fade(root, 1.0, 250);
+        long token = ++generation;
+        long started = GENERATION.start();
+        boolean[] shown = {false};
+        CompletableFuture<Integer> done;
+        if (HEDGE_DEADLINE_MS > 0) {
+            // The local plan shows as soon as it is built; the model's plan replaces it only if
+            // valid, in time and the user hasn't edited the local plan meanwhile (see replan)
+            setLoading(true);
+            done = generator.generateHedged(HF_TOKEN, subs, dailyHours, HEDGE_DEADLINE_MS,
+                plan -> {
+                    // Indexing and grouping happen here on the worker; the FX thread only swaps in the seven lists
+                    TaskRepository.Prepared prepared = TaskRepository.prepare(plan);
+                    Platform.runLater(() -> {
+                        if (token != generation) return;
+                        long t0 = FX_APPLY.start();
+                        tasks.apply(prepared);
+                        FX_APPLY.stop(t0);
+                        if (!shown[0]) {
+                            shown[0] = true;
+                            FIRST_PLAN.stop(started);
+                            setLoading(false);
+                            cancelAiBtn.setVisible(true);
+                        }
+                    });
                 });
-            } catch (Exception ex) {
-                Platform.runLater(() -> UI.error("AI Error", ex.getMessage()));
-            } finally {
-                Platform.runLater(() -> setLoading(false));
+        } else {
+            setLoading(true);
+            tasks.clear();
+            // Tasks stream in line by line; each frame applies as many as fit in its time budget.
+            // Batches from a superseded generation are dropped.
+            FxBatcher<Task> batcher = new FxBatcher<>(batch -> {
+                if (token != generation) return;
+                if (overlay.isVisible()) setLoading(false);
+                long t0 = FX_APPLY.start();
+                tasks.addAll(batch);
+                FX_APPLY.stop(t0);
+                if (!shown[0]) {
+                    shown[0] = true;
+                    FIRST_PLAN.stop(started);
+                }
+            });
+            done = generator.generate(HF_TOKEN, subs, dailyHours, batcher::offer);
+        }
+        done.whenComplete((n, ex) -> Platform.runLater(() -> {
+                if (token != generation) return;
+                GENERATION.stop(started);
+                setLoading(false);
+                cancelAiBtn.setVisible(false);
+                Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                if (cause == null) {
+                    UI.fade(root, 1.0, 250);
+                } else if (!(cause instanceof CancellationException)) {
+                    UI.error("AI Error", cause.getMessage());
+                }
+            }));
+    }
+
+    // Streams the plan to .ics/.csv/.jsonl on a background thread; the overlay shows progress
+    private void onExport() {
+        if (tasks.size() == 0) {
+            UI.warn("Nothing to Export", "Generate or restore a plan first.");
+            return;
+        }
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Plan");
+        chooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("iCalendar (*.ics)", "*.ics"),
+            new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv"),
+            new FileChooser.ExtensionFilter("JSON Lines (*.jsonl)", "*.jsonl"));
+        chooser.setInitialFileName("study-plan.ics");
+        File file = chooser.showSaveDialog(root.getScene().getWindow());
+        if (file == null) return;
+
+        Path path = file.toPath();
+        PlanExporter.Format format = PlanExporter.Format.forFile(path);
+        if (format == null) {
+            // no known extension typed: use the selected filter's, or the suggested name's if none is selected
+            FileChooser.ExtensionFilter filter = chooser.getSelectedExtensionFilter();
+            String ext = filter != null
+                ? filter.getExtensions().get(0).substring(2)
+                : PlanExporter.Format.ICS.extension();
+            path = path.resolveSibling(path.getFileName() + "." + ext);
+            format = PlanExporter.Format.forFile(path);
+        }
+        // date-ordered copies taken on the FX thread; the export thread never touches the live tasks
+        List<Task> snapshot = tasks.findByRange(tasks.firstDate(), tasks.lastDate()).stream().map(Task::copy).toList();
+        Path target = path;
+        PlanExporter.Format fmt = format;
+        javafx.concurrent.Task<Integer> job = new javafx.concurrent.Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                return PlanExporter.export(snapshot, fmt, target, this::updateProgress, this::isCancelled);
             }
-        }).start();
+        };
+        job.setOnSucceeded(e -> {
+            setLoading(false);
+            UI.info("Export", "Exported " + job.getValue() + " tasks to " + target.getFileName());
+        });
+        job.setOnFailed(e -> {
+            setLoading(false);
+            UI.error("Export Failed", String.valueOf(job.getException().getMessage()));
+        });
+        job.setOnCancelled(e -> setLoading(false));
+
+        overlaySpinner.progressProperty().bind(job.progressProperty());
+        overlayLabel.setText("Exporting " + snapshot.size() + " tasks...");
+        overlayCancel = job::cancel;
+        overlay.setVisible(true);
+        UI.fade(overlay, 1.0, 200);
+
+        Thread t = new Thread(job, "plan-export");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void onCancelGenerate() {
+        generation++;
+        generator.cancel();
+        setLoading(false);
+        cancelAiBtn.setVisible(false);
     }
 }
\ No newline at end of file
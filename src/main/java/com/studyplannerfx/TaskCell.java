@@ -0,0 +1,56 @@
+package com.studyplannerfx;
+
+import com.model.Task;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.Pos;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Timetable row: a done checkbox and "[Subject] title • 1.5h".
+ * No bindings: the cell listens to the one task it shows and detaches when the
+ * cell is reused, and the label text comes from the task's cached label, so a
+ * scroll frame allocates nothing for rows whose task hasn't changed.
+ */
+class TaskCell extends ListCell<Task> {
+
+    private final CheckBox check = new CheckBox();
+    private final Label label = new Label();
+    private final HBox box = new HBox(8, check, label);
+    private final InvalidationListener onTaskChanged = o -> show((Task) o);
+    private Task attached;
+
+    /** onToggle gets the task and the new done state when the checkbox is clicked. */
+    TaskCell(BiConsumer<Task, Boolean> onToggle) {
+        box.setAlignment(Pos.CENTER_LEFT);
+        check.setOnAction(e -> {
+            if (attached != null) onToggle.accept(attached, check.isSelected());
+        });
+    }
+
+    @Override
+    protected void updateItem(Task item, boolean empty) {
+        super.updateItem(item, empty);
+        Task t = empty ? null : item;
+        if (t != attached) {
+            if (attached != null) attached.removeListener(onTaskChanged);
+            attached = t;
+            if (t != null) t.addListener(onTaskChanged);
+        }
+        if (t == null) {
+            setGraphic(null);
+        } else {
+            show(t);
+            setGraphic(box);
+        }
+    }
+
+    private void show(Task t) {
+        check.setSelected(t.isDone());
+        label.setText(t.getLabel());
+    }
+}
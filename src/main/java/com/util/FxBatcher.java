@@ -0,0 +1,68 @@
+package com.util;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Collects items produced on a worker thread and hands them to the FX thread
+ * in batches. An AnimationTimer drains the queue once per frame, and the batch
+ * size adapts so each frame's apply stays within about half a 60fps frame. A
+ * fast producer therefore neither floods the event queue nor stalls rendering.
+ * Create it on the FX thread.
+ */
+public class FxBatcher<T> {
+
+    private static final long FRAME_BUDGET_NANOS = 8_000_000;
+    private static final int MIN_CHUNK = 16;
+    private static final int MAX_CHUNK = 1 << 16;
+
+    private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final Consumer<List<T>> applier;
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drainFrame();
+        }
+    };
+    private int chunk = 256; // FX thread only
+
+    public FxBatcher(Consumer<List<T>> applier) {
+        this.applier = applier;
+    }
+
+    /** Safe to call from any thread. */
+    public void offer(T item) {
+        queue.offer(item);
+        if (scheduled.compareAndSet(false, true)) {
+            Platform.runLater(timer::start);
+        }
+    }
+
+    private void drainFrame() {
+        List<T> batch = new ArrayList<>(Math.min(chunk, 1024));
+        T item;
+        while (batch.size() < chunk && (item = queue.poll()) != null) batch.add(item);
+        if (batch.isEmpty()) {
+            timer.stop();
+            scheduled.set(false);
+            // an offer may have slipped in after the poll and seen the timer still running
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) timer.start();
+            return;
+        }
+        long t0 = System.nanoTime();
+        applier.accept(batch);
+        long took = System.nanoTime() - t0;
+        if (took > FRAME_BUDGET_NANOS) {
+            chunk = Math.max(MIN_CHUNK, chunk / 2);
+        } else if (took < FRAME_BUDGET_NANOS / 2 && batch.size() == chunk) {
+            chunk = Math.min(MAX_CHUNK, chunk * 2);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.util;
+
+/**
+ * Hour amounts as every plan format prints them: rounded to hundredths,
+ * without trailing zeros (2, 1.5, 1.25). Task hours are floats underneath,
+ * so printing them raw would show 1.2000000476837158.
+ */
+public final class Hours {
+
+    private Hours() {
+    }
+
+    /** Hours rounded to hundredths. */
+    public static double rounded(double hours) {
+        return Math.round(hours * 100) / 100.0;
+    }
+
+    /** {@link #rounded} as text. */
+    public static String format(double hours) {
+        return append(new StringBuilder(8), hours).toString();
+    }
+
+    /** Appends {@link #format} to sb without building a String; returns sb. */
+    public static StringBuilder append(StringBuilder sb, double hours) {
+        long hundredths = Math.round(hours * 100);
+        if (hundredths < 0) {
+            sb.append('-');
+            hundredths = -hundredths;
+        }
+        sb.append(hundredths / 100);
+        int frac = (int) (hundredths % 100);
+        if (frac != 0) {
+            sb.append('.').append(frac / 10);
+            if (frac % 10 != 0) sb.append(frac % 10);
+        }
+        return sb;
+    }
+}
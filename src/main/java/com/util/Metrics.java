@@ -0,0 +1,247 @@
+package com.util;
+
+import com.services.JsonWriter;
+
+import javax.management.*;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide counters and timers for the hot paths (prompt build, HTTP,
+ * parsing, fallbacks, FX updates). Recording is a couple of LongAdder adds, so
+ * it stays on in production.
+ *
+ * Read them through JMX (com.studyplanner:type=Metrics, one attribute per
+ * value, plus a reset operation) or from the periodic dump started by
+ * startFromProperties: planner.metrics.dumpMs sets the period, and
+ * planner.metrics.file a JSON file to rewrite (text on stdout otherwise).
+ */
+public final class Metrics {
+
+    public static final String OBJECT_NAME = "com.studyplanner:type=Metrics";
+
+    private static final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private static final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private static ScheduledExecutorService dumper;
+    private static final Logger LOG = Logger.getLogger(Metrics.class.getName());
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    public static Timer timer(String name) {
+        return timers.computeIfAbsent(name, k -> new Timer());
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void inc() { value.increment(); }
+        public void add(long n) { value.add(n); }
+        public long get() { return value.sum(); }
+    }
+
+    /** Count, total and max of recorded durations. */
+    public static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        /** Start token for stop(). */
+        public long start() {
+            return System.nanoTime();
+        }
+
+        public void stop(long start) {
+            record(System.nanoTime() - start);
+        }
+
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public long count() { return count.sum(); }
+        public double totalMillis() { return totalNanos.sum() / 1e6; }
+        public double maxMillis() { return maxNanos.get() / 1e6; }
+        public double meanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+    }
+
+    public static void reset() {
+        counters.values().forEach(c -> c.value.reset());
+        timers.values().forEach(Timer::reset);
+    }
+
+    public static String toJson() {
+        JsonWriter json = new JsonWriter(new StringBuilder(1024)).beginObject();
+        json.name("counters").beginObject();
+        counters.forEach((name, c) -> json.name(name).value(c.get()));
+        json.endObject().name("timers").beginObject();
+        timers.forEach((name, t) -> json.name(name).beginObject()
+            .name("count").value(t.count())
+            .name("totalMs").value(round(t.totalMillis()))
+            .name("meanMs").value(round(t.meanMillis()))
+            .name("maxMs").value(round(t.maxMillis()))
+            .endObject());
+        return json.endObject().endObject().buffer().toString();
+    }
+
+    public static String toText() {
+        StringBuilder sb = new StringBuilder(512);
+        counters.forEach((name, c) -> sb.append(name).append(' ').append(c.get()).append('\n'));
+        timers.forEach((name, t) -> sb.append(name)
+            .append(" count=").append(t.count())
+            .append(" mean=").append(round(t.meanMillis())).append("ms")
+            .append(" max=").append(round(t.maxMillis())).append("ms")
+            .append(" total=").append(round(t.totalMillis())).append("ms\n"));
+        return sb.toString();
+    }
+
+    /** Registers the JMX bean and starts the dump if planner.metrics.dumpMs is set. */
+    public static synchronized void startFromProperties() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(new Bean(), name);
+        } catch (JMException e) {
+            LOG.warning("Metrics not registered with JMX: " + e.getMessage());
+        }
+
+        long period = Long.getLong("planner.metrics.dumpMs", 0);
+        if (period <= 0 || dumper != null) return;
+        String file = System.getProperty("planner.metrics.file", "");
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> dump(file), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    private static void dump(String file) {
+        if (file.isEmpty()) {
+            System.out.print(toText());
+            return;
+        }
+        // write then rename, so readers never see a half-written file
+        try {
+            Path target = Path.of(file);
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.writeString(tmp, toJson(), StandardCharsets.UTF_8);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warning("Metrics dump failed: " + e.getMessage());
+        }
+    }
+
+    private static double round(double ms) {
+        return Math.round(ms * 1000) / 1000.0;
+    }
+
+    // JMX view: counters as "name", timers as "name.count", "name.meanMs", "name.maxMs", "name.totalMs"
+    private static final class Bean implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Counter c = counters.get(attribute);
+            if (c != null) return c.get();
+            int dot = attribute.lastIndexOf('.');
+            Timer t = dot < 0 ? null : timers.get(attribute.substring(0, dot));
+            if (t != null) {
+                switch (attribute.substring(dot + 1)) {
+                    case "count": return t.count();
+                    case "meanMs": return t.meanMillis();
+                    case "maxMs": return t.maxMillis();
+                    case "totalMs": return t.totalMillis();
+                    default: break;
+                }
+            }
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String a : attributes) {
+                try {
+                    list.add(new Attribute(a, getAttribute(a)));
+                } catch (AttributeNotFoundException ignored) {
+                    // left out, as the JMX contract allows
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            if ("reset".equals(actionName)) {
+                reset();
+                return null;
+            }
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            // rebuilt on each call so metrics created after registration show up
+            List<MBeanAttributeInfo> attrs = new ArrayList<>();
+            for (String name : counters.keySet()) {
+                attrs.add(new MBeanAttributeInfo(name, "long", "counter", true, false, false));
+            }
+            for (String name : timers.keySet()) {
+                attrs.add(new MBeanAttributeInfo(name + ".count", "long", "timer count", true, false, false));
+                for (String s : new String[] {".meanMs", ".maxMs", ".totalMs"}) {
+                    attrs.add(new MBeanAttributeInfo(name + s, "double", "timer, milliseconds", true, false, false));
+                }
+            }
+            MBeanOperationInfo reset = new MBeanOperationInfo("reset", "Zero all metrics",
+                new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+            return new MBeanInfo(Metrics.class.getName(), "Study planner hot-path metrics",
+                attrs.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[] {reset}, null);
+        }
+    }
+}
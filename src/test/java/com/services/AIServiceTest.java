@@ -0,0 +1,124 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** streamPlanFromHF against a stub model server on localhost. */
+class AIServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final List<Subject> SUBJECTS = List.of(
+        new Subject("Math", 4, 4, TODAY.plusDays(4)), new Subject("Art", 2, 2, TODAY.plusDays(4)));
+    private static final double DAILY = 3;
+    private static final String PLAN = TODAY + " | Math | 2 | Algebra\n" + TODAY.plusDays(1) + " | Art | 1 | Sketch\n";
+
+    private HttpServer server;
+    private final List<Task> sink = new ArrayList<>();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        AIService.setModelClient(null);
+        server.stop(0);
+    }
+
+    // /full streams PLAN, /cut stalls inside its second line, /down fails
+    private void handle(HttpExchange ex) throws IOException {
+        ex.getRequestBody().readAllBytes();
+        String path = ex.getRequestURI().getPath();
+        if (path.endsWith("/down")) {
+            ex.sendResponseHeaders(500, -1);
+            ex.close();
+            return;
+        }
+        boolean cut = path.endsWith("/cut");
+        String text = cut ? PLAN.substring(0, PLAN.indexOf('|', PLAN.indexOf('\n'))) : PLAN;
+        StringBuilder events = new StringBuilder();
+        for (int i = 0; i < text.length(); i += 7) {
+            String token = text.substring(i, Math.min(text.length(), i + 7));
+            events.append("data:{\"token\":{\"text\":").append(JsonWriter.quote(token)).append(",\"special\":false}}\n\n");
+        }
+        byte[] body = events.toString().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/event-stream");
+        // a cut-off stream promises more bytes than it sends, so the client waits until its body deadline
+        ex.sendResponseHeaders(200, cut ? body.length + 4096 : body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        } catch (IOException expected) {
+            // closed short of the promised length
+        }
+    }
+
+    private void useModel(String name) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/models/";
+        AIService.setModelClient(new HuggingFaceClient(HttpClient.newHttpClient(), url, name + "-" + System.nanoTime()
+            + "/" + name, "test-key", Duration.ofMillis(500), 0, 1, new CircuitBreaker(3, 30_000)));
+    }
+
+    private double hours(String subject) {
+        return sink.stream().filter(t -> t.getSubject().equals(subject)).mapToDouble(Task::getHours).sum();
+    }
+
+    private void assertWithinDailyLimit() {
+        Map<LocalDate, Double> perDay = new HashMap<>();
+        for (Task t : sink) perDay.merge(t.getDate(), t.getHours(), Double::sum);
+        perDay.forEach((d, h) -> assertTrue(h <= DAILY + 1e-9, d + " has " + h + "h"));
+    }
+
+    @Test
+    void completeStreamIsUsedAsIs() throws Exception {
+        useModel("full");
+        int n = AIService.streamPlanFromHF("k", SUBJECTS, DAILY, sink::add);
+
+        assertEquals(2, n);
+        assertEquals(List.of("Algebra", "Sketch"), sink.stream().map(Task::getTitle).toList());
+        assertEquals(TODAY.plusDays(1), sink.get(1).getDate());
+    }
+
+    @Test
+    void brokenStreamIsToppedUpLocally() throws Exception {
+        useModel("cut");
+        int n = AIService.streamPlanFromHF("k", SUBJECTS, DAILY, sink::add);
+
+        assertEquals(sink.size(), n);
+        assertEquals("Algebra", sink.get(0).getTitle(), "the model's task is kept");
+        assertTrue(n > 1);
+        assertEquals(4, hours("Math"), 1e-9);
+        assertEquals(2, hours("Art"), 1e-9);
+        assertWithinDailyLimit();
+        for (Task t : sink) assertTrue(t.getDate().isBefore(TODAY.plusDays(4)), t.toString());
+    }
+
+    @Test
+    void unavailableModelFallsBackToTheLocalPlan() throws Exception {
+        useModel("down");
+        int n = AIService.streamPlanFromHF("k", SUBJECTS, DAILY, sink::add);
+
+        assertEquals(sink.size(), n);
+        assertEquals(4, hours("Math"), 1e-9);
+        assertEquals(2, hours("Art"), 1e-9);
+        assertWithinDailyLimit();
+    }
+}
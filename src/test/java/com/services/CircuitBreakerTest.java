@@ -0,0 +1,44 @@
+package com.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker b = new CircuitBreaker(3, 60_000);
+        b.failure();
+        b.failure();
+        b.success();
+        b.failure();
+        b.failure();
+        assertEquals(CircuitBreaker.State.CLOSED, b.state(), "a success resets the count");
+        assertTrue(b.allow());
+
+        b.failure();
+        assertEquals(CircuitBreaker.State.OPEN, b.state());
+        assertFalse(b.allow());
+    }
+
+    @Test
+    void letsOneTrialThroughAfterTheWindow() throws InterruptedException {
+        CircuitBreaker b = new CircuitBreaker(1, 50);
+        b.failure();
+        assertFalse(b.allow());
+        Thread.sleep(80);
+
+        assertTrue(b.allow());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, b.state());
+        assertFalse(b.allow(), "one trial at a time");
+
+        b.failure();
+        assertEquals(CircuitBreaker.State.OPEN, b.state());
+        Thread.sleep(80);
+        assertTrue(b.allow());
+        b.success();
+        assertEquals(CircuitBreaker.State.CLOSED, b.state());
+        assertTrue(b.allow());
+    }
+}
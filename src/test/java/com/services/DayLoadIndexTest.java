@@ -0,0 +1,128 @@
+package com.services;
+
+import com.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayLoadIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 9, 7); // a Monday
+
+    private static Task task(String id, LocalDate date, String subject, double hours) {
+        return new Task(id, date, subject, hours, "Study", false);
+    }
+
+    @Test
+    void sumsDaysWeeksAndSubjects() {
+        TaskRepository repo = new TaskRepository();
+        repo.addAll(List.of(task("a", DAY, "Math", 1.5), task("b", DAY, "Art", 0.25),
+            task("c", DAY.plusDays(6), "Math", 2), task("d", DAY.plusDays(7), "Math", 3)));
+        DayLoadIndex index = new DayLoadIndex(repo, 4);
+
+        assertEquals(1.75, index.day(DAY));
+        assertEquals(0, index.day(DAY.plusDays(1)));
+        assertEquals(3.75, index.week(DAY.plusDays(3)));
+        assertEquals(3, index.week(DAY.plusDays(7)));
+        assertEquals(6.75, index.range(DAY.minusDays(30), DAY.plusDays(30)));
+        assertEquals(3.5, index.subject("Math", DAY, DAY.plusDays(6)));
+        assertEquals(0, index.subject("History", DAY, DAY.plusDays(6)));
+        assertEquals(0.4375, index.fill(DAY));
+    }
+
+    @Test
+    void followsRepositoryChangesWithoutDrift() {
+        TaskRepository repo = new TaskRepository();
+        DayLoadIndex index = new DayLoadIndex(repo, 8);
+        for (int i = 0; i < 1000; i++) repo.add(task("t" + i, DAY, "Math", 0.1));
+        assertEquals(100, index.day(DAY));
+        for (int i = 0; i < 1000; i++) repo.remove("t" + i);
+        assertEquals(0, index.day(DAY));
+        assertEquals(0, index.subject("Math", DAY, DAY));
+
+        repo.add(task("m", DAY, "Math", 2));
+        repo.move("m", DAY.plusDays(2));
+        assertEquals(0, index.day(DAY));
+        assertEquals(2, index.day(DAY.plusDays(2)));
+    }
+
+    @Test
+    void keepsFarDaysOutsideTheWindow() {
+        TaskRepository repo = new TaskRepository();
+        DayLoadIndex index = new DayLoadIndex(repo, 4);
+        LocalDate far = DAY.plusDays(DayLoadIndex.MAX_SPAN * 10L);
+        LocalDate past = DAY.minusDays(DayLoadIndex.MAX_SPAN * 3L);
+        repo.addAll(List.of(task("a", DAY, "Math", 1), task("far", far, "Math", 2), task("past", past, "Art", 5)));
+
+        assertEquals(1, index.day(DAY));
+        assertEquals(2, index.day(far));
+        assertEquals(5, index.day(past));
+        assertEquals(8, index.range(past, far));
+        assertEquals(3, index.range(DAY, far));
+        assertEquals(3, index.subject("Math", past, far));
+        assertTrue(index.isOverloaded(past));
+        assertEquals(List.of(past), index.overloadedDays(past.minusDays(1), far));
+
+        repo.remove("past");
+        assertFalse(index.isOverloaded(past));
+        assertEquals(3, index.range(past, far));
+    }
+
+    @Test
+    void matchesBruteForceOverAWideSpan() {
+        Random rnd = new Random(7);
+        TaskRepository repo = new TaskRepository();
+        DayLoadIndex index = new DayLoadIndex(repo, 3);
+        Map<String, Task> live = new HashMap<>();
+        int span = DayLoadIndex.MAX_SPAN * 3;
+        for (int i = 0; i < 3000; i++) {
+            if (!live.isEmpty() && rnd.nextInt(4) == 0) {
+                String id = live.keySet().iterator().next();
+                live.remove(id);
+                repo.remove(id);
+            } else {
+                // mostly near DAY, some far enough out to land outside a window
+                int offset = rnd.nextInt(10) == 0 ? rnd.nextInt(span) - span / 2 : rnd.nextInt(60);
+                Task t = task("t" + i, DAY.plusDays(offset), "S" + rnd.nextInt(3), 0.25 * (1 + rnd.nextInt(12)));
+                live.put(t.getId(), t);
+                repo.add(t);
+            }
+        }
+
+        TreeMap<Long, Double> perDay = new TreeMap<>();
+        for (Task t : live.values()) perDay.merge((long) t.getEpochDay(), t.getHours(), Double::sum);
+        for (int q = 0; q < 500; q++) {
+            long from = DAY.toEpochDay() - span / 2 + rnd.nextInt(span);
+            long to = from + rnd.nextInt(span / 4);
+            double want = perDay.subMap(from, true, to, true).values().stream().mapToDouble(Double::doubleValue).sum();
+            assertEquals(want, index.range(LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to)), 1e-6);
+        }
+        for (Map.Entry<Long, Double> e : perDay.entrySet()) {
+            LocalDate d = LocalDate.ofEpochDay(e.getKey());
+            assertEquals(e.getValue(), index.day(d), 1e-6);
+            assertEquals(e.getValue() > 3 + 1e-9, index.isOverloaded(d), d.toString());
+        }
+    }
+
+    @Test
+    void reflagsDaysWhenTheLimitChanges() {
+        TaskRepository repo = new TaskRepository();
+        DayLoadIndex index = new DayLoadIndex(repo, 4);
+        LocalDate far = DAY.plusDays(DayLoadIndex.MAX_SPAN * 2L);
+        repo.addAll(List.of(task("a", DAY, "Math", 3), task("b", DAY.plusDays(1), "Math", 2), task("c", far, "Math", 3)));
+
+        List<LocalDate> changed = new ArrayList<>();
+        index.setOnOverloadChange(changed::add);
+        index.setDailyLimit(2.5);
+        assertEquals(List.of(DAY, far), index.overloadedDays(DAY, far));
+        assertEquals(Set.of(DAY, far), new HashSet<>(changed));
+
+        changed.clear();
+        index.setDailyLimit(1.5);
+        assertEquals(List.of(DAY.plusDays(1)), changed);
+        assertEquals(1.5, index.getDailyLimit());
+    }
+}
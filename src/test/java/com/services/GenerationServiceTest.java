@@ -0,0 +1,153 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final List<Subject> SUBJECTS = List.of(new Subject("Math", 3, 4, TODAY.plusDays(4)));
+    private static final String PLAN = TODAY + " | Math | 2 | Algebra\n" + TODAY.plusDays(1) + " | Math | 2 | Geometry\n";
+
+    private final GenerationService service = new GenerationService(2);
+
+    /** Answers with PLAN (or fails, if down) once `release` opens; records whether it was interrupted while waiting. */
+    private static final class Model implements ModelClient {
+        final String name = "fake-" + System.nanoTime();
+        final CountDownLatch release;
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        volatile int calls;
+        volatile boolean down;
+
+        Model(boolean open) {
+            release = new CountDownLatch(open ? 0 : 1);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String generate(String prompt) throws IOException, InterruptedException {
+            calls++;
+            await();
+            if (down) throw new ModelUnavailableException("API returned 503");
+            return PLAN;
+        }
+
+        @Override
+        public void stream(String prompt, Consumer<String> chunks) throws InterruptedException {
+            calls++;
+            await();
+            for (String line : PLAN.split("(?<=\n)")) chunks.accept(line);
+        }
+
+        private void await() throws InterruptedException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        }
+    }
+
+    private static Model use(Model m) {
+        AIService.setModelClient(m);
+        return m;
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        AIService.setModelClient(null);
+    }
+
+    @Test
+    void hedgedKeepsTheLocalPlanWhenTheModelMissesTheDeadline() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            Model m = use(new Model(false));
+            List<List<Task>> plans = new CopyOnWriteArrayList<>();
+            // a zero deadline may fire before the worker reaches the model
+            CompletableFuture<Integer> f = service.generateHedged("k", SUBJECTS, 3, 0, plans::add);
+
+            assertEquals(0, f.get(5, TimeUnit.SECONDS));
+            assertEquals(1, plans.size(), "only the local plan");
+            assertFalse(plans.get(0).isEmpty());
+            if (m.calls > 0) assertTrue(m.interrupted.await(5, TimeUnit.SECONDS), "the model call is abandoned");
+        }
+    }
+
+    @Test
+    void hedgedSwapsInAModelPlanThatMakesTheDeadline() throws Exception {
+        use(new Model(true));
+        List<List<Task>> plans = new CopyOnWriteArrayList<>();
+        CompletableFuture<Integer> f = service.generateHedged("k", SUBJECTS, 3, 10_000, plans::add);
+
+        assertEquals(2, f.get(5, TimeUnit.SECONDS));
+        assertEquals(2, plans.size());
+        assertEquals(List.of("Algebra", "Geometry"), plans.get(1).stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    void hedgedKeepsTheLocalPlanWhenTheModelFails() throws Exception {
+        Model m = use(new Model(true));
+        m.down = true;
+        List<List<Task>> plans = new CopyOnWriteArrayList<>();
+        assertEquals(0, service.generateHedged("k", SUBJECTS, 3, 10_000, plans::add).get(5, TimeUnit.SECONDS));
+        assertEquals(1, m.calls);
+        assertEquals(1, plans.size());
+    }
+
+    @Test
+    void hedgedAsksTheModelOnlyOnceForTheSameInputs() throws Exception {
+        Model m = use(new Model(true));
+        for (int i = 0; i < 2; i++) {
+            List<List<Task>> plans = new CopyOnWriteArrayList<>();
+            assertEquals(2, service.generateHedged("k", SUBJECTS, 3, 10_000, plans::add).get(5, TimeUnit.SECONDS));
+            assertEquals("Geometry", plans.get(1).get(1).getTitle());
+        }
+        assertEquals(1, m.calls, "the second plan comes from the cache");
+    }
+
+    @Test
+    void sameInputsJoinTheRunningGeneration() throws Exception {
+        Model m = use(new Model(false));
+        List<Task> first = new CopyOnWriteArrayList<>();
+        List<Task> second = new CopyOnWriteArrayList<>();
+        CompletableFuture<Integer> a = service.generate("k", SUBJECTS, 3, first::add);
+        CompletableFuture<Integer> b = service.generate("k", SUBJECTS, 3, second::add);
+        assertSame(a, b);
+
+        m.release.countDown();
+        assertEquals(2, a.get(5, TimeUnit.SECONDS));
+        assertEquals(1, m.calls);
+        assertEquals(first, second);
+        assertEquals(2, first.size());
+    }
+
+    @Test
+    void newInputsSupersedeAndCancelStops() throws Exception {
+        Model m = use(new Model(false));
+        CompletableFuture<Integer> a = service.generate("k", SUBJECTS, 3, t -> { });
+        while (m.calls == 0) Thread.onSpinWait();
+        CompletableFuture<Integer> b = service.generate("k", SUBJECTS, 4, t -> { });
+
+        assertTrue(a.isCancelled());
+        assertTrue(m.interrupted.await(5, TimeUnit.SECONDS));
+        service.cancel();
+        assertTrue(b.isCancelled());
+        assertThrows(CancellationException.class, () -> b.get(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,157 @@
+package com.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HuggingFaceClientTest {
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile int failFirst;
+    private volatile String answer = "[{\"generated_text\":\"a plan\"}]";
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    // /busy answers 503 to the first failFirst requests, /bad always 400, /stall stops partway into its body
+    private void handle(HttpExchange ex) throws IOException {
+        ex.getRequestBody().readAllBytes();
+        int n = hits.incrementAndGet();
+        String path = ex.getRequestURI().getPath();
+        if (path.endsWith("/bad") || path.endsWith("/busy") && n <= failFirst) {
+            ex.getResponseHeaders().set("Retry-After", "0");
+            ex.sendResponseHeaders(path.endsWith("/bad") ? 400 : 503, -1);
+            ex.close();
+            return;
+        }
+        String text = path.endsWith("/stall") ? answer.substring(0, 10) : answer;
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        ex.sendResponseHeaders(200, path.endsWith("/stall") ? body.length + 4096 : body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        } catch (IOException expected) {
+            // closed short of the promised length
+        }
+    }
+
+    private HuggingFaceClient client(String model, int retries, CircuitBreaker breaker) {
+        return new HuggingFaceClient(HttpClient.newHttpClient(), "http://127.0.0.1:" + server.getAddress().getPort(),
+            model, "test-key", Duration.ofMillis(500), retries, 1, breaker);
+    }
+
+    private static HttpHeaders headers(String name, String value) {
+        return HttpHeaders.of(Map.of(name, List.of(value)), (a, b) -> true);
+    }
+
+    @Test
+    void extractsGeneratedTextFromAnyBodyShape() throws IOException {
+        assertEquals("x", HuggingFaceClient.extractGeneratedText(new StringReader("[{\"generated_text\":\"x\"}]")));
+        assertEquals("y", HuggingFaceClient.extractGeneratedText(new StringReader("{\"generated_text\":\"y\"}")));
+        assertEquals("plain\ntext", HuggingFaceClient.extractGeneratedText(new StringReader("plain\ntext")));
+        assertEquals("", HuggingFaceClient.extractGeneratedText(new StringReader("  \n")));
+
+        String padded = " \n".repeat(5000) + "[{\"generated_text\":\"deep\"}]";
+        assertEquals("deep", HuggingFaceClient.extractGeneratedText(new StringReader(padded)));
+    }
+
+    @Test
+    void extractsTokenTextSkippingSpecialTokens() throws IOException {
+        assertEquals("Hi", HuggingFaceClient.extractTokenText(
+            "data:{\"index\":1,\"token\":{\"id\":5,\"text\":\"Hi\",\"special\":false},\"generated_text\":null}"));
+        assertNull(HuggingFaceClient.extractTokenText("data:{\"token\":{\"text\":\"</s>\",\"special\":true}}"));
+        assertNull(HuggingFaceClient.extractTokenText("data:{\"other\":1}"));
+        assertNull(HuggingFaceClient.extractTokenText("data:[1]"));
+    }
+
+    @Test
+    void readsRetryAfterInBothForms() {
+        assertEquals(7, HuggingFaceClient.retryAfterSeconds(headers("Retry-After", " 7 ")));
+        assertEquals(-1, HuggingFaceClient.retryAfterSeconds(headers("Retry-After", "-3")));
+        assertEquals(-1, HuggingFaceClient.retryAfterSeconds(headers("Retry-After", "soon")));
+        assertEquals(-1, HuggingFaceClient.retryAfterSeconds(headers("X-Other", "1")));
+        assertEquals(0, HuggingFaceClient.retryAfterSeconds(headers("Retry-After", "Tue, 01 Jan 2019 00:00:00 GMT")));
+
+        String later = ZonedDateTime.now().plusSeconds(120).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        long s = HuggingFaceClient.retryAfterSeconds(headers("Retry-After", later));
+        assertTrue(s > 100 && s <= 120, String.valueOf(s));
+    }
+
+    @Test
+    void retriesABusyEndpoint() throws Exception {
+        failFirst = 2;
+        CircuitBreaker breaker = new CircuitBreaker(3, 30_000);
+        assertEquals("a plan", client("busy", 2, breaker).generate("p"));
+        assertEquals(3, hits.get());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        hits.set(0);
+        assertThrows(ModelClient.ModelUnavailableException.class, () -> client("busy", 1, breaker).generate("p"));
+        assertEquals(2, hits.get(), "gives up after the last retry");
+    }
+
+    @Test
+    void clientErrorsAreNotRetriedAndOpenTheCircuit() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 30_000);
+        HuggingFaceClient bad = client("bad", 3, breaker);
+        assertThrows(ModelClient.ModelUnavailableException.class, () -> bad.generate("p"));
+        assertEquals(1, hits.get());
+        assertThrows(ModelClient.ModelUnavailableException.class, () -> bad.generate("p"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        ModelClient.ModelUnavailableException e = assertThrows(ModelClient.ModelUnavailableException.class, () -> bad.generate("p"));
+        assertTrue(e.getMessage().startsWith("circuit open"), e.getMessage());
+        assertEquals(2, hits.get(), "an open circuit sends nothing");
+    }
+
+    @Test
+    void stalledBodyFailsAtTheDeadline() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 30_000);
+        long t0 = System.nanoTime();
+        ModelClient.ModelUnavailableException e = assertThrows(ModelClient.ModelUnavailableException.class,
+            () -> client("stall", 0, breaker).generate("p"));
+        assertTrue(e.getMessage().contains("not received within 500ms"), e.getMessage());
+        assertTrue(System.nanoTime() - t0 < 5_000_000_000L);
+    }
+
+    @Test
+    void streamsTokensOrAPlainBody() throws Exception {
+        answer = "data:{\"token\":{\"text\":\"2026\",\"special\":false}}\n\n: keep-alive\n\n"
+            + "data:{\"token\":{\"text\":\"-01\",\"special\":false}}\n\n"
+            + "data:{\"token\":{\"text\":\"</s>\",\"special\":true}}\n\n";
+        List<String> chunks = new ArrayList<>();
+        client("ok", 0, new CircuitBreaker(3, 30_000)).stream("p", chunks::add);
+        assertEquals(List.of("2026", "-01"), chunks);
+
+        answer = "[{\"generated_text\":\"whole\"}]";
+        chunks.clear();
+        client("ok", 0, new CircuitBreaker(3, 30_000)).stream("p", chunks::add);
+        assertEquals(List.of("whole"), chunks);
+    }
+}
@@ -0,0 +1,107 @@
+package com.services;
+
+import com.services.JsonReader.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonReaderWriterTest {
+
+    @Test
+    void writesCommasAndNestingInPlace() {
+        StringBuilder sb = new StringBuilder();
+        new JsonWriter(sb).beginObject()
+            .name("a").value(1)
+            .name("b").beginArray().value(true).value("x").beginObject().endObject().endArray()
+            .name("c").value((CharSequence) null)
+            .endObject();
+        assertEquals("{\"a\":1,\"b\":[true,\"x\",{}],\"c\":null}", sb.toString());
+    }
+
+    @Test
+    void writesNumbersWithoutNoise() {
+        StringBuilder sb = new StringBuilder();
+        new JsonWriter(sb).beginArray().value(2.0).value(1.25).value(-0.5).value(Double.NaN)
+            .value(Double.POSITIVE_INFINITY).value(Long.MIN_VALUE).endArray();
+        assertEquals("[2,1.25,-0.5,null,null,-9223372036854775808]", sb.toString());
+    }
+
+    @Test
+    void escapesWhatJsonRequires() {
+        assertEquals("\"q\\\" b\\\\ n\\n t\\t \\u0001 \\u2028 é ✓\"", JsonWriter.quote("q\" b\\ n\n t\t \u0001   é ✓"));
+    }
+
+    @Test
+    void limitsDepthAndBalance() {
+        JsonWriter w = new JsonWriter(new StringBuilder());
+        for (int i = 0; i < JsonWriter.MAX_DEPTH; i++) w.beginArray();
+        assertThrows(IllegalStateException.class, w::beginObject);
+        for (int i = 0; i < JsonWriter.MAX_DEPTH; i++) w.endArray();
+        assertThrows(IllegalStateException.class, w::endArray);
+    }
+
+    @Test
+    void stringsRoundTrip() throws IOException {
+        String[] samples = {"", "plain", "quote \" and \\ slash /", "lines\r\n\ttab", "\u0000\u001f\u007f",
+            "  ", "emoji 📚 and ünïcödé", "x".repeat(10_000)};
+        StringBuilder sb = new StringBuilder();
+        JsonWriter w = new JsonWriter(sb).beginObject();
+        for (int i = 0; i < samples.length; i++) w.name("k" + i).value(samples[i]);
+        w.endObject();
+
+        JsonReader r = JsonReader.of(sb);
+        r.expect(Token.BEGIN_OBJECT);
+        for (int i = 0; i < samples.length; i++) {
+            assertEquals("k" + i, r.nextName());
+            assertEquals(samples[i], r.nextString());
+        }
+        r.expect(Token.END_OBJECT);
+        assertEquals(Token.END, r.next());
+    }
+
+    @Test
+    void decodesUnicodeEscapes() throws IOException {
+        JsonReader r = JsonReader.of("[\"\\u00e9\\uD83D\\uDCDA\\/\\b\\f\"]");
+        r.expect(Token.BEGIN_ARRAY);
+        assertEquals("é📚/\b\f", r.nextString());
+    }
+
+    @Test
+    void readsScalarTokens() throws IOException {
+        JsonReader r = JsonReader.of(" { \"n\" : -1.5e3 , \"t\": true, \"f\": false, \"z\": null } ");
+        r.expect(Token.BEGIN_OBJECT);
+        assertEquals("n", r.nextName());
+        assertEquals(Token.NUMBER, r.next());
+        assertEquals("-1.5e3", r.value());
+        assertEquals("t", r.nextName());
+        assertTrue(r.nextBoolean());
+        assertEquals("f", r.nextName());
+        assertFalse(r.nextBoolean());
+        assertEquals("z", r.nextName());
+        assertNull(r.nextString());
+        r.expect(Token.END_OBJECT);
+        assertEquals(Token.END, r.peek());
+    }
+
+    @Test
+    void skipsNestedValuesAndFindsStrings() throws IOException {
+        JsonReader r = JsonReader.of("{\"skip\":{\"a\":[1,{\"generated_text\":\"no\"}]},\"keep\":\"yes\"}");
+        r.expect(Token.BEGIN_OBJECT);
+        assertEquals("skip", r.nextName());
+        r.skipValue();
+        assertEquals("keep", r.nextName());
+        assertEquals("yes", r.nextString());
+
+        JsonReader deep = JsonReader.of("[{\"x\":1},{\"generated_text\":\"plan\\nline\"}]");
+        assertEquals("plan\nline", deep.findString("generated_text"));
+        assertNull(JsonReader.of("[1,2]").findString("generated_text"));
+    }
+
+    @Test
+    void reportsWrongTokens() {
+        assertThrows(IOException.class, () -> JsonReader.of("[1]").expect(Token.BEGIN_OBJECT));
+        assertThrows(IOException.class, () -> JsonReader.of("{}").nextName());
+    }
+}
@@ -0,0 +1,109 @@
+package com.services;
+
+import com.model.Subject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSchedulerTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 4, 6);
+
+    private static double total(LocalScheduler.Result r, String subject) {
+        return r.blocks().stream().filter(b -> b.subject().getName().equals(subject))
+            .mapToDouble(LocalScheduler.Block::hours).sum();
+    }
+
+    private static void assertWellFormed(LocalScheduler.Result r, double dailyHours) {
+        Map<LocalDate, Double> perDay = new HashMap<>();
+        LocalDate prev = LocalDate.MIN;
+        for (LocalScheduler.Block b : r.blocks()) {
+            assertFalse(b.date().isBefore(prev), "blocks in date order");
+            prev = b.date();
+            assertTrue(b.hours() >= LocalScheduler.MIN_BLOCK && b.hours() <= LocalScheduler.MAX_BLOCK, b.toString());
+            assertEquals(0, b.hours() * 2 % 1, 1e-9, "half-hour blocks: " + b);
+            perDay.merge(b.date(), b.hours(), Double::sum);
+            LocalDate exam = b.subject().getExamDate();
+            if (exam != null && !exam.equals(START)) assertTrue(b.date().isBefore(exam), b.toString());
+        }
+        perDay.forEach((d, h) -> assertTrue(h <= dailyHours + 1e-9, d + " has " + h + "h"));
+    }
+
+    @Test
+    void schedulesEveryHourWhenThereIsRoom() {
+        List<Subject> subjects = List.of(new Subject("Math", 5, 12, START.plusDays(6)),
+            new Subject("Art", 1, 4.2, START.plusDays(10)), new Subject("History", 3, 6, null));
+        LocalScheduler.Result r = LocalScheduler.schedule(subjects, 4, START, START.plusDays(13));
+
+        assertWellFormed(r, 4);
+        assertTrue(r.unscheduled().isEmpty(), r.unscheduled().toString());
+        assertEquals(12, total(r, "Math"));
+        assertEquals(4.5, total(r, "Art"), "targets round up to half hours");
+        assertEquals(6, total(r, "History"));
+    }
+
+    @Test
+    void closerExamsGoFirstThenHarderSubjects() {
+        List<Subject> subjects = List.of(new Subject("Later", 5, 2, START.plusDays(8)),
+            new Subject("Easy", 1, 2, START.plusDays(3)), new Subject("Hard", 5, 2, START.plusDays(3)));
+        LocalScheduler.Result day0 = LocalScheduler.schedule(subjects, 2, START, START.plusDays(13));
+        assertEquals(List.of("Hard", "Easy"), day0.blocks().stream()
+            .filter(b -> b.date().equals(START)).map(b -> b.subject().getName()).toList());
+
+        // with room for one block a day, the harder subject wins every tie
+        LocalScheduler.Result tight = LocalScheduler.schedule(subjects, 0.5, START, START.plusDays(13));
+        assertEquals(List.of("Hard", "Hard", "Hard"),
+            tight.blocks().subList(0, 3).stream().map(b -> b.subject().getName()).toList());
+        assertEquals(2, tight.unscheduled().get("Easy"));
+    }
+
+    @Test
+    void reportsWhatCannotFit() {
+        List<Subject> subjects = List.of(new Subject("Past", 3, 5, START.minusDays(1)),
+            new Subject("Tight", 3, 10, START.plusDays(2)), new Subject("Zero", 3, 0, null));
+        LocalScheduler.Result r = LocalScheduler.schedule(subjects, 3, START, START.plusDays(13));
+
+        assertWellFormed(r, 3);
+        assertEquals(5, r.unscheduled().get("Past"));
+        assertEquals(6, total(r, "Tight"), "two days of three hours before the exam");
+        assertEquals(4, r.unscheduled().get("Tight"));
+        assertFalse(r.unscheduled().containsKey("Zero"));
+    }
+
+    @Test
+    void studiesOnTheExamDayOnlyWhenItIsTheFirstDay() {
+        LocalScheduler.Result today = LocalScheduler.schedule(List.of(new Subject("Math", 3, 2, START)), 4,
+            START, START.plusDays(5));
+        assertEquals(1, today.blocks().size());
+        assertEquals(START, today.blocks().get(0).date());
+
+        assertEquals(START.toEpochDay() + 2, LocalScheduler.lastStudyDay(START.toEpochDay() + 3,
+            START.toEpochDay(), START.toEpochDay() + 9));
+        assertEquals(START.toEpochDay() + 9, LocalScheduler.lastStudyDay(START.toEpochDay() + 30,
+            START.toEpochDay(), START.toEpochDay() + 9));
+    }
+
+    @Test
+    void followsAPerDayCapacity() {
+        // weekends (days 5, 6) are full; others have 1.7h, which rounds down to 1.5h
+        LocalScheduler.Result r = LocalScheduler.schedule(List.of(new Subject("Math", 3, 9, null)),
+            day -> (day - START.toEpochDay()) % 7 >= 5 ? 0 : 1.7, START, START.plusDays(13));
+
+        assertWellFormed(r, 1.5);
+        for (LocalScheduler.Block b : r.blocks()) {
+            assertTrue((b.date().toEpochDay() - START.toEpochDay()) % 7 < 5, b.toString());
+        }
+        assertEquals(9, total(r, "Math"));
+    }
+
+    @Test
+    void roundsToHalfHours() {
+        assertEquals(1.5, LocalScheduler.ceilHalf(1.1));
+        assertEquals(1.0, LocalScheduler.ceilHalf(1.0000000001));
+        assertEquals(1.0, LocalScheduler.floorHalf(1.4));
+        assertEquals(1.5, LocalScheduler.floorHalf(1.4999999999));
+    }
+}
@@ -0,0 +1,110 @@
+package com.services;
+
+import com.model.Subject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanCacheTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 6, 1);
+
+    @TempDir
+    Path dir;
+
+    private static Subject math(double target) {
+        return new Subject("Math", 4, target, START.plusDays(9));
+    }
+
+    private static final Subject ART = new Subject("Art", 1, 3, null);
+
+    private long entries() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.toString().endsWith(".plan")).count();
+        }
+    }
+
+    private Path age(Path file, Duration by) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(by)));
+        return file;
+    }
+
+    @Test
+    void keyIgnoresSubjectOrderButNothingElse() {
+        String k = PlanCache.key("m", List.of(math(10), ART), 3, START, START.plusDays(9));
+        assertEquals(k, PlanCache.key("m", List.of(ART, math(10)), 3, START, START.plusDays(9)));
+        assertEquals(64, k.length());
+        assertNotEquals(k, PlanCache.key("m2", List.of(math(10), ART), 3, START, START.plusDays(9)));
+        assertNotEquals(k, PlanCache.key("m", List.of(math(11), ART), 3, START, START.plusDays(9)));
+        assertNotEquals(k, PlanCache.key("m", List.of(math(10), ART), 3.5, START, START.plusDays(9)));
+        assertNotEquals(k, PlanCache.key("m", List.of(math(10), ART), 3, START.plusDays(1), START.plusDays(9)));
+        assertNotEquals(k, PlanCache.key("m", List.of(math(10)), 3, START, START.plusDays(9)));
+    }
+
+    @Test
+    void memoryTierEvictsTheLeastRecentlyUsed() {
+        PlanCache cache = new PlanCache(2, null);
+        cache.put("a", "plan a");
+        cache.put("b", "plan b");
+        assertEquals("plan a", cache.get("a"));
+        cache.put("c", "plan c");
+        assertNull(cache.get("b"));
+        assertEquals("plan a", cache.get("a"));
+        assertEquals("plan c", cache.get("c"));
+        cache.clear();
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void diskTierSurvivesANewInstance() {
+        new PlanCache(4, dir).put("k1", "2026-06-01 | Math | 2 | Algebra ✓\n");
+        PlanCache reopened = new PlanCache(4, dir);
+        assertEquals("2026-06-01 | Math | 2 | Algebra ✓\n", reopened.get("k1"));
+        assertNull(reopened.get("k2"));
+    }
+
+    @Test
+    void prunesOnlyEveryFewWrites() throws IOException {
+        PlanCache cache = new PlanCache(4, dir);
+        Path stale = age(Files.writeString(dir.resolve("stale.plan"), "old"), PlanCache.MAX_AGE.plusDays(1));
+        Path crashed = age(Files.writeString(dir.resolve("x.tmp"), "half"), Duration.ofHours(2));
+        Path fresh = Files.writeString(dir.resolve("y.tmp"), "in flight");
+
+        for (int i = 1; i < PlanCache.PRUNE_EVERY; i++) cache.put("k" + i, "plan");
+        assertTrue(Files.exists(stale), "no prune before PRUNE_EVERY writes");
+
+        cache.put("last", "plan");
+        assertFalse(Files.exists(stale));
+        assertFalse(Files.exists(crashed));
+        assertTrue(Files.exists(fresh));
+        assertEquals(PlanCache.PRUNE_EVERY, entries());
+    }
+
+    @Test
+    void keepsTheNewestEntriesWithinTheLimits() throws IOException {
+        for (int i = 0; i < PlanCache.MAX_FILES + 10; i++) {
+            age(Files.writeString(dir.resolve("e" + i + ".plan"), "p"), Duration.ofMinutes(PlanCache.MAX_FILES + 10 - i));
+        }
+        PlanCache cache = new PlanCache(4, dir);
+        assertEquals(PlanCache.MAX_FILES, entries());
+        assertFalse(Files.exists(dir.resolve("e0.plan")), "oldest goes first");
+        assertEquals("p", cache.get("e" + (PlanCache.MAX_FILES + 9)));
+
+        // one entry over the byte limit doesn't take the others with it
+        Files.writeString(dir.resolve("huge.plan"), "x".repeat((int) PlanCache.MAX_BYTES + 1));
+        new PlanCache(4, dir);
+        assertFalse(Files.exists(dir.resolve("huge.plan")));
+        assertEquals(PlanCache.MAX_FILES, entries());
+    }
+}
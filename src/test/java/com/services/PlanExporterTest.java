@@ -0,0 +1,118 @@
+package com.services;
+
+import com.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanExporterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 5, 4);
+
+    @TempDir
+    Path dir;
+
+    private static String write(List<Task> tasks, PlanExporter.Format format) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PlanExporter.write(tasks, format, Channels.newChannel(bytes), null, null);
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<Task> plan(int n) {
+        List<Task> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) tasks.add(new Task("t" + i, DAY.plusDays(i % 30), "Math", 1.5, "Block " + i, false));
+        return tasks;
+    }
+
+    @Test
+    void csvQuotesOnlyWhenNeeded() throws IOException {
+        String csv = write(List.of(new Task("a", DAY, "Math", 2, "Algebra", false),
+            new Task("b", DAY.plusDays(1), "Art, Design", 1.25, "The \"big\" sketch", true)), PlanExporter.Format.CSV);
+        assertEquals("id,date,subject,hours,title,done\r\n"
+            + "a,2026-05-04,Math,2,Algebra,false\r\n"
+            + "b,2026-05-05,\"Art, Design\",1.25,\"The \"\"big\"\" sketch\",true\r\n", csv);
+    }
+
+    @Test
+    void jsonLinesEscapeAndKeepUnicode() throws IOException {
+        String jsonl = write(List.of(new Task("a", DAY, "Français", 0.5, "Line\n\"two\" 😀", true)),
+            PlanExporter.Format.JSONL);
+        assertEquals("{\"id\":\"a\",\"date\":\"2026-05-04\",\"subject\":\"Français\",\"hours\":0.5,"
+            + "\"title\":\"Line\\n\\\"two\\\" 😀\",\"done\":true}\n", jsonl);
+    }
+
+    @Test
+    void icsEventsAreEscapedAndFolded() throws IOException {
+        String title = "Chapter 1; sets, maps\\ and " + "é".repeat(40);
+        String ics = write(List.of(new Task("a", DAY, "Math", 1.5, title, false)), PlanExporter.Format.ICS);
+
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"), ics);
+        assertTrue(ics.endsWith("END:VEVENT\r\nEND:VCALENDAR\r\n"), ics);
+        assertTrue(ics.contains("UID:a@study-planner\r\n"));
+        assertTrue(ics.contains("DTSTART;VALUE=DATE:20260504\r\nDTEND;VALUE=DATE:20260505\r\n"));
+        assertTrue(ics.contains("DESCRIPTION:1.5h study\r\n"));
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        String unfolded = ics.replace("\r\n ", "");
+        assertTrue(unfolded.contains("SUMMARY:Math: Chapter 1\\; sets\\, maps\\\\ and " + "é".repeat(40) + "\r\n"), unfolded);
+    }
+
+    @Test
+    void exportsToTheFileWithProgress() throws IOException {
+        Path file = dir.resolve("plan.csv");
+        List<long[]> updates = new ArrayList<>();
+        int n = PlanExporter.export(plan(1200), PlanExporter.Format.CSV, file,
+            (done, total) -> updates.add(new long[] {done, total}), () -> false);
+
+        assertEquals(1200, n);
+        assertEquals(1201, Files.readAllLines(file).size());
+        assertArrayEquals(new long[] {1200, 1200}, updates.get(updates.size() - 1));
+        assertTrue(updates.size() >= 3, "progress every few hundred tasks");
+        assertFalse(Files.exists(dir.resolve("plan.csv.part")));
+    }
+
+    @Test
+    void cancelledExportLeavesNoFile() throws IOException {
+        Path file = dir.resolve("plan.ics");
+        Files.writeString(file, "previous export");
+        int[] checks = {0};
+        assertThrows(CancellationException.class, () -> PlanExporter.export(plan(2000), PlanExporter.Format.ICS, file,
+            null, () -> ++checks[0] > 2));
+
+        assertEquals("previous export", Files.readString(file));
+        assertFalse(Files.exists(dir.resolve("plan.ics.part")));
+    }
+
+    @Test
+    void formatFollowsTheExtension() {
+        assertEquals(PlanExporter.Format.ICS, PlanExporter.Format.forFile(Path.of("a", "plan.ICS")));
+        assertEquals(PlanExporter.Format.JSONL, PlanExporter.Format.forFile(Path.of("plan.v2.jsonl")));
+        assertNull(PlanExporter.Format.forFile(Path.of("plan.txt")));
+        assertNull(PlanExporter.Format.forFile(Path.of("plan")));
+    }
+
+    @Test
+    void copiesDoNotFollowTheLiveTask() {
+        Task live = new Task("a", DAY, "Math", 2, "Algebra", false);
+        live.titleProperty().set("Geometry");
+        Task copy = live.copy();
+        live.doneProperty().set(true);
+        live.hoursProperty().set(3);
+
+        assertEquals("Geometry", copy.getTitle());
+        assertFalse(copy.isDone());
+        assertEquals(2, copy.getHours());
+    }
+}
@@ -0,0 +1,110 @@
+package com.services;
+
+import com.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanParserTest {
+
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<String> reasons = new ArrayList<>();
+    private final PlanParser parser = new PlanParser(tasks::add, (n, line, reason) -> reasons.add(n + ": " + reason));
+
+    private static double hours(String s) {
+        return PlanParser.parseHours(s, 0, s.length());
+    }
+
+    @Test
+    void parsesWellFormedLines() {
+        parser.parse("2026-03-01 | Math | 2 | Algebra\r\n  2026-03-02|Physics|1.5|Optics, part 2  \n\n2024-02-29 | Math | .75 | Leap");
+
+        assertEquals(3, tasks.size());
+        assertEquals(3, parser.accepted());
+        Task t = tasks.get(1);
+        assertEquals(LocalDate.of(2026, 3, 2), t.getDate());
+        assertEquals("Physics", t.getSubject());
+        assertEquals(1.5, t.getHours());
+        assertEquals("Optics, part 2", t.getTitle());
+        assertFalse(t.isDone());
+        assertEquals(0.75, tasks.get(2).getHours());
+        assertSame(tasks.get(0).getSubject(), tasks.get(2).getSubject());
+        assertNotEquals(tasks.get(0).getId(), tasks.get(1).getId());
+    }
+
+    @Test
+    void reportsWhyALineWasRejected() {
+        parser.parse("""
+            Here is your plan:
+            2026-13-01 | Math | 2 | Bad month
+            2025-02-29 | Math | 2 | Not a leap year
+            2026-03-01 |  | 2 | No subject
+            2026-03-01 | Math | two | Words
+            2026-03-01 | Math | 2 | Fine
+            """);
+
+        assertEquals(1, tasks.size());
+        assertEquals(5, parser.rejected());
+        assertEquals(List.of("1: expected 4 fields separated by '|'", "2: invalid date", "3: invalid date",
+            "4: missing subject", "5: invalid hours"), reasons);
+    }
+
+    @Test
+    void joinsLinesSplitAcrossChunks() throws IOException {
+        String text = "2026-03-01 | Math | 2 | Algebra\n2026-03-02 | Math | 1 | Geometry\n";
+        for (int cut = 1; cut < text.length(); cut++) {
+            tasks.clear();
+            PlanParser p = new PlanParser(tasks::add);
+            p.feed(text.substring(0, cut));
+            char[] rest = text.substring(cut).toCharArray();
+            p.feed(rest, 0, rest.length);
+            p.finish();
+            assertEquals(List.of("Algebra", "Geometry"), tasks.stream().map(Task::getTitle).toList(), "cut at " + cut);
+        }
+
+        tasks.clear();
+        new PlanParser(tasks::add).parse(new StringReader(text.repeat(2000)));
+        assertEquals(4000, tasks.size());
+    }
+
+    @Test
+    void datesMatchLocalDate() {
+        for (LocalDate d = LocalDate.of(1999, 12, 25); d.isBefore(LocalDate.of(2101, 1, 5)); d = d.plusDays(13)) {
+            String s = d.toString();
+            assertEquals(d.toEpochDay(), PlanParser.parseEpochDay(s, 0, s.length()), s);
+        }
+        assertEquals(Long.MIN_VALUE, PlanParser.parseEpochDay("2026-3-01", 0, 9));
+        assertEquals(Long.MIN_VALUE, PlanParser.parseEpochDay("2026-04-31", 0, 10));
+        assertEquals(Long.MIN_VALUE, PlanParser.parseEpochDay("2026/04/01", 0, 10));
+    }
+
+    @Test
+    void hoursAreCheckedAndBounded() {
+        assertEquals(2, hours("2"));
+        assertEquals(1.25, hours("+1.25"));
+        assertEquals(0.5, hours(".5"));
+        assertEquals(3, hours("3."));
+        assertEquals(1.5, hours("1.50000000000000000000"));
+        assertEquals(24, hours("24"));
+        assertEquals(0.1234567890123456789, hours("0.1234567890123456789"));
+
+        for (String bad : new String[] {"", ".", "-", "1..5", "1.5h", "2,5", "-1", "24.01", "1e2",
+                "99999999999999999999", "123456789012345678901234567890.5"}) {
+            assertTrue(Double.isNaN(hours(bad)), bad);
+        }
+    }
+
+    @Test
+    void parsesSingleLines() {
+        assertTrue(parser.parseLine("2026-03-01 | Math | 2 | Algebra | extra"));
+        assertEquals("Algebra", tasks.get(0).getTitle()); // extra fields are ignored, as before
+        assertFalse(parser.parseLine("   "));
+        assertEquals(0, parser.rejected());
+    }
+}
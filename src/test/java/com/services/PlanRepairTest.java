@@ -0,0 +1,167 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanRepairTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 2);
+    private static final LocalDate END = START.plusDays(13);
+
+    private static Subject subject(String name, LocalDate exam) {
+        return new Subject(name, 3, 10, exam);
+    }
+
+    private static Task task(String id, int day, String subject, double hours, String title) {
+        return new Task(id, START.plusDays(day), subject, hours, title, false);
+    }
+
+    @Test
+    void cleanPlanPassesThroughUnchanged() {
+        List<Subject> subjects = List.of(subject("Math", END), subject("Physics", null));
+        List<Task> plan = List.of(task("a", 0, "Math", 2, "Algebra"), task("b", 0, "Physics", 1.5, "Optics"),
+            task("c", 1, "Math", 3, "Calculus"));
+
+        PlanRepair.Result r = PlanRepair.repair(plan, subjects, 4, START, END);
+
+        assertTrue(r.report().isClean(), r.report().toString());
+        assertEquals(3, r.tasks().size());
+        for (int i = 0; i < plan.size(); i++) assertSame(plan.get(i), r.tasks().get(i));
+        assertEquals(6.5, r.report().hoursIn(), 1e-9);
+        assertEquals(6.5, r.report().hoursOut(), 1e-9);
+    }
+
+    @Test
+    void matchesSubjectsLooselyAndDropsUnknownOnes() {
+        List<Subject> subjects = List.of(subject("Comp. Sci", null));
+        PlanRepair.Result r = PlanRepair.repair(
+            List.of(task("a", 0, "comp sci ", 1, "Graphs"), task("b", 0, "History", 1, "Rome")),
+            subjects, 4, START, END);
+
+        assertEquals(1, r.tasks().size());
+        assertEquals("Comp. Sci", r.tasks().get(0).getSubject());
+        assertEquals(1, r.report().count(PlanRepair.Issue.RENAMED_SUBJECT));
+        assertEquals(1, r.report().count(PlanRepair.Issue.UNKNOWN_SUBJECT));
+    }
+
+    @Test
+    void clampsHoursToBlockSize() {
+        List<Subject> subjects = List.of(subject("Math", null));
+        PlanRepair.Result r = PlanRepair.repair(
+            List.of(task("a", 0, "Math", 0.1, "Short"), task("b", 1, "Math", 7, "Long"),
+                task("c", 2, "Math", Double.NaN, "Broken")),
+            subjects, 8, START, END);
+
+        assertEquals(List.of(LocalScheduler.MIN_BLOCK, LocalScheduler.MAX_BLOCK, LocalScheduler.MIN_BLOCK),
+            r.tasks().stream().map(Task::getHours).toList());
+        assertEquals(3, r.report().count(PlanRepair.Issue.CLAMPED_HOURS));
+    }
+
+    @Test
+    void dropsOutOfRangeDatesAndRepeats() {
+        List<Subject> subjects = List.of(subject("Math", null));
+        PlanRepair.Result r = PlanRepair.repair(
+            List.of(task("a", -1, "Math", 1, "Early"), task("b", 14, "Math", 1, "Late"),
+                task("c", 3, "Math", 1, "Review"), task("d", 3, "MATH", 1, " review ")),
+            subjects, 4, START, END);
+
+        assertEquals(List.of("c"), r.tasks().stream().map(Task::getId).toList());
+        assertEquals(2, r.report().count(PlanRepair.Issue.OUT_OF_RANGE));
+        assertEquals(1, r.report().count(PlanRepair.Issue.DUPLICATE));
+    }
+
+    @Test
+    void shiftsPastDaysWithTooLittleRoom() {
+        List<Subject> subjects = List.of(subject("Math", null));
+        List<Task> plan = new ArrayList<>();
+        // days 0-4 keep half an hour free, less than the 1h task needs
+        for (int d = 0; d < 5; d++) plan.add(task("f" + d, d, "Math", 2.5, "Fill " + d));
+        plan.add(task("x", 0, "Math", 1, "Extra"));
+
+        PlanRepair.Result r = PlanRepair.repair(plan, subjects, 3, START, END);
+
+        Task moved = r.tasks().get(r.tasks().size() - 1);
+        assertEquals("x", moved.getId());
+        assertEquals(START.plusDays(5), moved.getDate());
+        assertEquals(1, r.report().count(PlanRepair.Issue.SHIFTED));
+    }
+
+    @Test
+    void dropsTaskWithNoRoomBeforeItsExam() {
+        List<Subject> subjects = List.of(subject("Math", START.plusDays(2)));
+        PlanRepair.Result r = PlanRepair.repair(
+            List.of(task("a", 0, "Math", 2, "One"), task("b", 1, "Math", 2, "Two"), task("c", 0, "Math", 1, "Three")),
+            subjects, 2, START, END);
+
+        assertEquals(List.of("a", "b"), r.tasks().stream().map(Task::getId).toList());
+        assertEquals(1, r.report().count(PlanRepair.Issue.NO_ROOM));
+    }
+
+    @Test
+    void movesTaskAfterItsExamBackToTheLastStudyDay() {
+        LocalDate exam = START.plusDays(5);
+        List<Subject> subjects = List.of(subject("Math", exam), subject("Physics", null));
+        PlanRepair.Result r = PlanRepair.repair(
+            List.of(task("a", 4, "Math", 2, "Full"), task("b", 8, "Math", 1, "Late"), task("c", 8, "Physics", 1, "Fine")),
+            subjects, 2.5, START, END);
+
+        Map<String, LocalDate> dates = new HashMap<>();
+        for (Task t : r.tasks()) dates.put(t.getId(), t.getDate());
+        assertEquals(START.plusDays(3), dates.get("b"), "day 4 is full, so the day before it");
+        assertEquals(START.plusDays(8), dates.get("c"));
+        assertEquals(1, r.report().count(PlanRepair.Issue.AFTER_EXAM));
+    }
+
+    @Test
+    void followsLocalSchedulerOnTheExamDay() {
+        // the exam is the first plan day, so that day may be studied; the day before it is the limit otherwise
+        List<Subject> today = List.of(subject("Math", START));
+        assertEquals(1, PlanRepair.repair(List.of(task("a", 0, "Math", 1, "Cram")), today, 4, START, END).tasks().size());
+
+        List<Subject> later = List.of(subject("Math", START.plusDays(3)));
+        PlanRepair.Result r = PlanRepair.repair(List.of(task("a", 3, "Math", 1, "Exam day")), later, 4, START, END);
+        assertEquals(START.plusDays(2), r.tasks().get(0).getDate());
+
+        List<Subject> past = List.of(subject("Math", START.minusDays(1)));
+        assertTrue(PlanRepair.repair(List.of(task("a", 0, "Math", 1, "Too late")), past, 4, START, END).tasks().isEmpty());
+    }
+
+    @Test
+    void neverOverfillsADayOrMissesAnExam() {
+        Random rnd = new Random(42);
+        LocalDate end = START.plusDays(59);
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) subjects.add(subject("S" + i, i == 0 ? null : START.plusDays(10 + rnd.nextInt(60))));
+        List<Task> plan = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            plan.add(task("t" + i, rnd.nextInt(60), "S" + rnd.nextInt(5), 0.5 * (1 + rnd.nextInt(6)), "T" + i));
+        }
+
+        PlanRepair.Result r = PlanRepair.repair(plan, subjects, 5, START, end);
+
+        Map<LocalDate, Double> perDay = new HashMap<>();
+        for (Task t : r.tasks()) {
+            perDay.merge(t.getDate(), t.getHours(), Double::sum);
+            LocalDate exam = subjects.get(t.getSubject().charAt(1) - '0').getExamDate();
+            if (exam != null) assertTrue(t.getDate().isBefore(exam), t.getSubject() + " on " + t.getDate());
+        }
+        perDay.forEach((d, h) -> assertTrue(h <= 5 + 1e-9, d + " has " + h + "h"));
+        assertEquals(r.report().output(), r.tasks().size());
+        assertEquals(2000, r.report().input());
+    }
+
+    @Test
+    void acceptsTasksOneAtATime() {
+        PlanRepair repair = new PlanRepair(List.of(subject("Math", null)), 2, START, END);
+        assertNotNull(repair.accept(task("a", 0, "Math", 2, "One")));
+        Task second = repair.accept(task("b", 0, "Math", 2, "Two"));
+        assertEquals(START.plusDays(1), second.getDate());
+        assertEquals(2, repair.report().output());
+    }
+}
@@ -0,0 +1,149 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 5, 4);
+
+    @TempDir
+    Path dir;
+
+    private Path file() {
+        return dir.resolve("plan.bin");
+    }
+
+    private static PlanStore.Snapshot sample() {
+        List<Subject> subjects = List.of(new Subject("Math", 4, 12.5, DAY.plusDays(20)), new Subject("Art ✎", 1, 3, null));
+        List<Task> tasks = List.of(new Task("t1", DAY, "Math", 1.5, "Algebra", false),
+            new Task("t2", DAY.plusDays(1), "Art ✎", 0.75, "Sketch", true));
+        return new PlanStore.Snapshot(subjects, tasks);
+    }
+
+    private static void assertSample(PlanStore.Snapshot snap) {
+        assertEquals(2, snap.subjects().size());
+        Subject math = snap.subjects().get(0);
+        assertEquals("Math", math.getName());
+        assertEquals(4, math.getDifficulty());
+        assertEquals(12.5, math.getTargetHours());
+        assertEquals(DAY.plusDays(20), math.getExamDate());
+        assertNull(snap.subjects().get(1).getExamDate());
+
+        assertEquals(List.of("t1", "t2"), snap.tasks().stream().map(Task::getId).toList());
+        Task t2 = snap.tasks().get(1);
+        assertEquals(DAY.plusDays(1), t2.getDate());
+        assertEquals("Art ✎", t2.getSubject());
+        assertEquals(0.75, t2.getHours());
+        assertEquals("Sketch", t2.getTitle());
+        assertTrue(t2.isDone());
+    }
+
+    private void appendBytes(int... values) throws IOException {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) bytes[i] = (byte) values[i];
+        Files.write(file(), bytes, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void missingOrShortFileLoadsEmpty() throws IOException {
+        assertTrue(new PlanStore(file()).load().tasks().isEmpty());
+        Files.write(file(), new byte[] {'S', 'P'});
+        PlanStore.Snapshot snap = new PlanStore(file()).load();
+        assertTrue(snap.tasks().isEmpty());
+        assertTrue(snap.subjects().isEmpty());
+    }
+
+    @Test
+    void snapshotRoundTrips() throws IOException {
+        new PlanStore(file()).compact(sample());
+        assertSample(new PlanStore(file()).load());
+    }
+
+    @Test
+    void tornTailIsIgnored() throws IOException {
+        new PlanStore(file()).compact(sample());
+        appendBytes(2, 0, 5, 'a'); // a task record cut off inside its id
+        assertSample(new PlanStore(file()).load());
+    }
+
+    @Test
+    void garbageAndZeroTailsAreIgnored() throws IOException {
+        new PlanStore(file()).compact(sample());
+        appendBytes(new int[64]);
+        assertSample(new PlanStore(file()).load());
+
+        new PlanStore(file()).compact(sample());
+        appendBytes(99, 1, 2, 3);
+        assertSample(new PlanStore(file()).load());
+    }
+
+    @Test
+    void attachCutsTheTailSoNewDeltasAreRead() throws IOException {
+        new PlanStore(file()).compact(sample());
+        appendBytes(3, 0); // leftover half of a remove record
+
+        PlanStore store = new PlanStore(file());
+        PlanStore.Snapshot snap = store.load();
+        TaskRepository repo = new TaskRepository();
+        repo.addAll(snap.tasks());
+        ObservableList<Subject> subjects = FXCollections.observableArrayList(snap.subjects());
+        store.attach(repo, subjects);
+        repo.add(new Task("t3", DAY.plusDays(2), "Math", 2, "Geometry", false));
+        repo.remove("t1");
+        Task t2 = repo.findById("t2");
+        t2.setDone(false);
+        store.recordDone(t2);
+        store.close();
+
+        PlanStore.Snapshot after = new PlanStore(file()).load();
+        assertEquals(List.of("t2", "t3"), after.tasks().stream().map(Task::getId).toList());
+        assertFalse(after.tasks().get(0).isDone());
+        assertEquals("Geometry", after.tasks().get(1).getTitle());
+    }
+
+    @Test
+    void unreadableFileIsSetAsideAndStartedAfresh() throws IOException {
+        Files.write(file(), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        PlanStore store = new PlanStore(file());
+        assertThrows(IOException.class, store::load);
+
+        Path aside = store.setAside();
+        assertTrue(Files.exists(aside));
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}, Files.readAllBytes(aside));
+
+        TaskRepository repo = new TaskRepository();
+        repo.addAll(sample().tasks());
+        store.attach(repo, FXCollections.observableArrayList(sample().subjects()));
+        store.close();
+        assertSample(new PlanStore(file()).load());
+    }
+
+    @Test
+    void closeRestoresOnlyARealInterrupt() throws IOException {
+        PlanStore idle = new PlanStore(file());
+        idle.close();
+        assertFalse(Thread.currentThread().isInterrupted());
+
+        PlanStore store = new PlanStore(file());
+        store.load();
+        store.attach(new TaskRepository(), FXCollections.observableArrayList());
+        Thread.currentThread().interrupt();
+        store.close();
+        assertTrue(Thread.interrupted(), "the interrupt is kept for the caller");
+        assertDoesNotThrow(() -> new PlanStore(file()).load());
+    }
+}
@@ -0,0 +1,201 @@
+package com.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanningServerTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final String SUBJECTS = "{\"subjects\":[{\"name\":\"Math\",\"difficulty\":4,\"targetHours\":4,"
+        + "\"examDate\":\"" + TODAY.plusDays(4) + "\"}],\"dailyHours\":2";
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final CountDownLatch called = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PlanningServer server;
+
+    private PlanningServer start(int workers, int queue, long timeoutMillis) throws IOException {
+        server = new PlanningServer(0, workers, queue, timeoutMillis, "test-key").start();
+        return server;
+    }
+
+    /** A model that answers with one task once `release` opens; `called` opens when it is asked. */
+    private void useModel() {
+        String name = "server-" + System.nanoTime();
+        AIService.setModelClient(new ModelClient() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public String generate(String prompt) throws InterruptedException {
+                called.countDown();
+                release.await();
+                return TODAY + " | Math | 2 | From the model\n";
+            }
+
+            @Override
+            public void stream(String prompt, Consumer<String> chunks) throws InterruptedException {
+                chunks.accept(generate(prompt));
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        AIService.setModelClient(null);
+        if (server != null) server.stop();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path));
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return http.send(request(path).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> send(HttpRequest req) throws Exception {
+        return http.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String field(String json, String name) throws IOException {
+        JsonReader r = JsonReader.of(json);
+        r.expect(JsonReader.Token.BEGIN_OBJECT);
+        while (r.peek() == JsonReader.Token.NAME) {
+            if (r.nextName().equals(name)) return r.nextString();
+            r.skipValue();
+        }
+        return null;
+    }
+
+    @Test
+    void plansAreKeptForLater() throws Exception {
+        start(2, 4, 10_000);
+        HttpResponse<String> made = post("/plans", SUBJECTS + ",\"local\":true}");
+        assertEquals(200, made.statusCode(), made.body());
+        assertTrue(made.body().contains("\"subject\":\"Math\""), made.body());
+        assertNotNull(made.headers().firstValue("X-Request-Id").orElse(null));
+
+        String id = field(made.body(), "id");
+        HttpResponse<String> again = send(request("/plans/" + id).GET().build());
+        assertEquals(200, again.statusCode());
+        assertEquals(made.body(), again.body());
+        assertEquals(404, send(request("/plans/nope").GET().build()).statusCode());
+    }
+
+    @Test
+    void plansComeFromTheModel() throws Exception {
+        start(2, 4, 10_000);
+        useModel();
+        release.countDown();
+        HttpResponse<String> made = post("/plans", SUBJECTS + "}");
+        assertEquals(200, made.statusCode(), made.body());
+        assertTrue(made.body().contains("\"title\":\"From the model\",\"done\":false"), made.body());
+        assertTrue(made.body().contains("\"hours\":2"), made.body());
+    }
+
+    @Test
+    void parseCountsRejectedLines() throws Exception {
+        start(2, 4, 10_000);
+        HttpResponse<String> parsed = post("/parse", TODAY + " | Math | 1.5 | Algebra\nnot a plan line\n"
+            + TODAY.plusDays(1) + " | Art | 1 | Sketch\n");
+        assertEquals(200, parsed.statusCode());
+        assertEquals("2", field(parsed.body(), "accepted"));
+        assertEquals("1", field(parsed.body(), "rejected"));
+        assertTrue(parsed.body().contains("\"hours\":1.5"), parsed.body());
+    }
+
+    @Test
+    void rejectsBadRequests() throws Exception {
+        start(2, 4, 10_000);
+        assertEquals(404, send(request("/nope").GET().build()).statusCode());
+        assertEquals(405, send(request("/parse").GET().build()).statusCode());
+
+        HttpResponse<String> malformed = post("/plans", "{\"subjects\":[");
+        assertEquals(400, malformed.statusCode());
+        assertTrue(field(malformed.body(), "error").startsWith("malformed JSON"), malformed.body());
+        assertEquals("no subjects", field(post("/plans", "{\"subjects\":[]}").body(), "error"));
+        assertEquals(400, post("/plans", SUBJECTS.replace("\"dailyHours\":2", "\"dailyHours\":30") + "}").statusCode());
+        assertEquals(400, post("/plans", SUBJECTS.replace(TODAY.plusDays(4).toString(), "soon") + "}").statusCode());
+
+        // answered from the Content-Length alone; a raw socket so nothing is uploaded
+        try (Socket socket = new Socket("localhost", server.port())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(("POST /parse HTTP/1.1\r\nHost: localhost\r\nContent-Length: "
+                + ((4 << 20) + 1) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals("HTTP/1.1 400 Bad Request", in.readLine());
+            int length = 0;
+            for (String h; !(h = in.readLine()).isEmpty(); ) {
+                if (h.toLowerCase().startsWith("content-length:")) length = Integer.parseInt(h.substring(15).trim());
+            }
+            char[] body = new char[length];
+            for (int n = 0; n < length; ) n += in.read(body, n, length - n);
+            assertEquals("{\"error\":\"body too large\"}", new String(body));
+        }
+    }
+
+    @Test
+    void busyServerTurnsRequestsAwayAtOnce() throws Exception {
+        start(1, 0, 10_000);
+        useModel();
+        CompletableFuture<HttpResponse<String>> first = http.sendAsync(request("/plans")
+            .header("X-Request-Id", "slow").POST(HttpRequest.BodyPublishers.ofString(SUBJECTS + "}")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        assertTrue(called.await(5, TimeUnit.SECONDS));
+
+        HttpResponse<String> second = post("/parse", "");
+        assertEquals(429, second.statusCode());
+        assertEquals("1", second.headers().firstValue("Retry-After").orElse(null));
+        release.countDown();
+        assertEquals(200, first.get(5, TimeUnit.SECONDS).statusCode());
+    }
+
+    @Test
+    void inFlightRequestsCanBeCancelled() throws Exception {
+        start(2, 4, 10_000);
+        useModel();
+        CompletableFuture<HttpResponse<String>> call = http.sendAsync(request("/plans")
+            .header("X-Request-Id", "r1").POST(HttpRequest.BodyPublishers.ofString(SUBJECTS + "}")).build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        int status;
+        do {
+            status = send(request("/requests/r1").DELETE().build()).statusCode();
+        } while (status == 404 && !call.isDone()); // until the server has admitted it
+        assertEquals(204, status);
+        assertEquals(409, call.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(404, send(request("/requests/r1").DELETE().build()).statusCode());
+    }
+
+    @Test
+    void slowRequestsTimeOut() throws Exception {
+        start(2, 4, 200);
+        useModel();
+        HttpResponse<String> late = post("/plans", SUBJECTS + "}");
+        assertEquals(504, late.statusCode());
+        assertEquals("timed out", field(late.body(), "error"));
+    }
+}
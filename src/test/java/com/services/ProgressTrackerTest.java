@@ -0,0 +1,97 @@
+package com.services;
+
+import com.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgressTrackerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 2, 2);
+
+    private final TaskRepository repo = new TaskRepository();
+
+    private static Task task(String id, LocalDate date, String subject, double hours, boolean done) {
+        return new Task(id, date, subject, hours, "Study", done);
+    }
+
+    @Test
+    void countsThePlanItFollows() {
+        repo.addAll(List.of(task("a", DAY, "Math", 2, true), task("b", DAY, "Art", 1, false)));
+        ProgressTracker p = new ProgressTracker(repo);
+        repo.add(task("c", DAY.plusDays(1), "Math", 1.5, false));
+
+        assertEquals(3, p.overall().getTotal());
+        assertEquals(1, p.overall().getDone());
+        assertEquals(4.5, p.overall().getHours());
+        assertEquals(2, p.overall().getDoneHours());
+        assertEquals(50, p.subject("Math").getPercent());
+        assertEquals(2, p.day(DAY).getTotal());
+        assertEquals(0, p.subject("History").getTotal());
+        assertEquals(0, p.day(DAY.plusDays(9)).getPercent());
+    }
+
+    @Test
+    void followsDoneTogglesFromAnywhere() {
+        repo.addAll(List.of(task("a", DAY, "Math", 2, false), task("b", DAY, "Art", 1, false)));
+        ProgressTracker p = new ProgressTracker(repo);
+        AtomicInteger changes = new AtomicInteger();
+        p.setOnChange(changes::incrementAndGet);
+
+        repo.findById("a").setDone(true);              // plain setter, no properties created
+        assertEquals(1, p.overall().getDone());
+        assertEquals(2, p.subject("Math").getDoneHours());
+        assertEquals(1, p.day(DAY).getDone());
+
+        repo.findById("b").doneProperty().set(true);   // through the JavaFX property
+        assertEquals(2, p.overall().getDone());
+        assertEquals(100, p.day(DAY).getPercent());
+
+        repo.findById("b").setDone(true);              // no change, no event
+        assertEquals(2, changes.get());
+
+        repo.findById("a").setDone(false);
+        assertEquals(1, p.overall().getDone());
+        assertEquals(0, p.subject("Math").getDone());
+    }
+
+    @Test
+    void stopsWatchingRemovedAndReplacedTasks() {
+        Task a = task("a", DAY, "Math", 2, false);
+        repo.add(a);
+        ProgressTracker p = new ProgressTracker(repo);
+
+        Task moved = repo.move("a", DAY.plusDays(3));
+        a.setDone(true);
+        assertEquals(0, p.overall().getDone(), "the replaced task no longer counts");
+        assertEquals(1, p.day(DAY.plusDays(3)).getTotal());
+        assertEquals(0, p.day(DAY).getTotal());
+
+        moved.setDone(true);
+        assertEquals(1, p.overall().getDone());
+        repo.remove("a");
+        moved.setDone(false);
+        assertEquals(0, p.overall().getTotal());
+        assertEquals(0, p.overall().getDone());
+        assertEquals(0, p.overall().getDoneHours());
+    }
+
+    @Test
+    void followsOtherEditsToATask() {
+        Task a = task("a", DAY, "Math", 2, true);
+        repo.add(a);
+        ProgressTracker p = new ProgressTracker(repo);
+
+        a.hoursProperty().set(3);
+        assertEquals(3, p.overall().getHours());
+        assertEquals(3, p.subject("Math").getDoneHours());
+
+        a.subjectProperty().set("Physics");
+        assertEquals(0, p.subject("Math").getTotal());
+        assertEquals(3, p.subject("Physics").getHours());
+    }
+}
@@ -0,0 +1,100 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplannerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+    private static final Subject MATH = new Subject("Math", 4, 4, TODAY.plusDays(10));
+    private static final Subject ART = new Subject("Art", 2, 1, null);
+
+    private final TaskRepository repo = new TaskRepository();
+    private final Replanner replanner = new Replanner(repo);
+    private final List<Subject> subjects = new ArrayList<>(List.of(MATH, ART));
+
+    private static Task task(String id, LocalDate date, Subject s, double hours) {
+        return new Task(id, date, s.getName(), hours, "Study", false);
+    }
+
+    private Replanner.Diff apply(Replanner.Change change, double dailyHours) {
+        return replanner.apply(change, subjects, dailyHours, TODAY);
+    }
+
+    private double openHours(String subject) {
+        return repo.findBySubject(subject).stream()
+            .filter(t -> !t.isDone() && !t.getDate().isBefore(TODAY)).mapToDouble(Task::getHours).sum();
+    }
+
+    @Test
+    void movingOntoAFullDaySwapsATaskBack() {
+        repo.addAll(List.of(task("a", TODAY, MATH, 2), task("b", TODAY, ART, 1), task("c", TODAY.plusDays(1), MATH, 2)));
+        Task moved = repo.move("c", TODAY);
+
+        Replanner.Diff diff = apply(new Replanner.Moved(moved, TODAY.plusDays(1)), 4);
+        assertEquals(List.of("b"), diff.removed().stream().map(Task::getId).toList(), "the task with the most slack");
+        assertEquals(TODAY.plusDays(1), repo.findById("b").getDate());
+        assertEquals(TODAY, repo.findById("c").getDate(), "the dropped task stays put");
+        assertEquals(4, repo.hoursOn((int) TODAY.toEpochDay()));
+    }
+
+    @Test
+    void movingWithinTheCapChangesNothing() {
+        repo.addAll(List.of(task("a", TODAY, MATH, 2), task("c", TODAY.plusDays(1), MATH, 2)));
+        Task moved = repo.move("c", TODAY);
+        assertTrue(apply(new Replanner.Moved(moved, TODAY.plusDays(1)), 4).isEmpty());
+    }
+
+    @Test
+    void tickingAPastTaskTrimsAndUntickingRestores() {
+        repo.addAll(List.of(task("p", TODAY.minusDays(1), MATH, 1), task("q", TODAY, MATH, 2),
+            task("r", TODAY.plusDays(1), MATH, 2)));
+
+        repo.findById("p").setDone(true);
+        Replanner.Diff trim = apply(new Replanner.Finished(repo.findById("p")), 4);
+        assertEquals(List.of("r"), trim.removed().stream().map(Task::getId).toList(), "the latest task gives way");
+        assertEquals(1, repo.findById("r").getHours());
+        assertEquals(3, openHours("Math"));
+
+        repo.findById("p").setDone(false);
+        apply(new Replanner.Finished(repo.findById("p")), 4);
+        assertEquals(4, openHours("Math"));
+        assertEquals(3, repo.findById("q").getHours(), "topped up on the first day with room");
+    }
+
+    @Test
+    void tickingATaskFromTodayOnChangesNothingElse() {
+        repo.addAll(List.of(task("q", TODAY, MATH, 2), task("r", TODAY.plusDays(1), MATH, 2)));
+        repo.findById("q").setDone(true);
+        assertTrue(apply(new Replanner.Finished(repo.findById("q")), 4).isEmpty());
+    }
+
+    @Test
+    void addedSubjectGetsItsTargetBeforeItsExam() {
+        repo.addAll(List.of(task("a", TODAY, MATH, 3), task("b", TODAY.plusDays(1), MATH, 1)));
+        Subject bio = new Subject("Bio", 3, 3.5, TODAY.plusDays(3));
+        subjects.add(bio);
+
+        Replanner.Diff diff = apply(new Replanner.SubjectAdded(bio), 3);
+        assertTrue(diff.removed().isEmpty());
+        assertEquals(3.5, openHours("Bio"));
+        for (Task t : repo.findBySubject("Bio")) assertTrue(t.getDate().isBefore(bio.getExamDate()), t.toString());
+        for (int d = 0; d < 3; d++) assertTrue(repo.hoursOn((int) TODAY.toEpochDay() + d) <= 3);
+    }
+
+    @Test
+    void removedSubjectTakesItsTasks() {
+        repo.addAll(List.of(task("a", TODAY, MATH, 2), task("b", TODAY, ART, 1), task("c", TODAY.plusDays(2), ART, 1)));
+        subjects.remove(ART);
+
+        assertEquals(2, apply(new Replanner.SubjectRemoved("Art"), 4).removed().size());
+        assertTrue(repo.findBySubject("Art").isEmpty());
+        assertEquals(1, repo.size());
+    }
+}
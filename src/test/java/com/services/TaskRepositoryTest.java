@@ -0,0 +1,142 @@
+package com.services;
+
+import com.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRepositoryTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 9, 7);
+
+    private TaskRepository repo;
+    private final List<Collection<Task>> removed = new ArrayList<>();
+    private final List<Collection<Task>> added = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repo = new TaskRepository();
+        repo.showWeek(MONDAY);
+        repo.addListener((r, a) -> {
+            removed.add(List.copyOf(r));
+            added.add(List.copyOf(a));
+        });
+    }
+
+    private static Task task(String id, LocalDate date, String subject, double hours) {
+        return new Task(id, date, subject, hours, "Study " + id, false);
+    }
+
+    private static List<String> ids(Collection<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    @Test
+    void indexesByIdDaySubjectAndRange() {
+        repo.addAll(List.of(task("a", MONDAY, "Math", 1.5), task("b", MONDAY, "Art", 0.25),
+            task("c", MONDAY.plusDays(3), "Math", 2), task("d", MONDAY.plusDays(20), "Math", 1)));
+
+        assertEquals("Study b", repo.findById("b").getTitle());
+        assertNull(repo.findById("zz"));
+        assertNull(repo.findById(null));
+        assertEquals(List.of("a", "b"), ids(repo.findByDate(MONDAY)));
+        assertEquals(List.of("a", "b", "c"), ids(repo.findByRange(MONDAY, MONDAY.plusDays(6))));
+        assertTrue(repo.findByRange(MONDAY.plusDays(1), MONDAY).isEmpty());
+        assertEquals(Set.of("a", "c", "d"), new HashSet<>(ids(repo.findBySubject("Math"))));
+        assertEquals(1.75, repo.hoursOn((int) MONDAY.toEpochDay()));
+        assertEquals(MONDAY, repo.firstDate());
+        assertEquals(MONDAY.plusDays(20), repo.lastDate());
+        assertEquals(4, repo.size());
+    }
+
+    @Test
+    void weekViewHoldsOnlyTheVisibleWeek() {
+        repo.addAll(List.of(task("a", MONDAY, "Math", 1), task("c", MONDAY.plusDays(3), "Math", 2),
+            task("d", MONDAY.plusDays(7), "Math", 1)));
+
+        assertEquals(List.of("a"), ids(repo.view(DayOfWeek.MONDAY)));
+        assertEquals(List.of("c"), ids(repo.view(DayOfWeek.THURSDAY)));
+
+        repo.showWeek(MONDAY.plusDays(9));
+        assertEquals(MONDAY.plusDays(7), repo.getWeekStart());
+        assertEquals(List.of("d"), ids(repo.view(DayOfWeek.MONDAY)));
+        assertTrue(repo.view(DayOfWeek.THURSDAY).isEmpty());
+    }
+
+    @Test
+    void duplicateIdsInOneBatchKeepOnlyTheLast() {
+        Task first = task("a", MONDAY, "Math", 1);
+        Task second = task("a", MONDAY.plusDays(1), "Math", 2);
+        repo.addAll(List.of(first, second));
+
+        assertSame(second, repo.findById("a"));
+        assertEquals(1, repo.size());
+        assertTrue(repo.view(DayOfWeek.MONDAY).isEmpty());
+        assertEquals(List.of(second), repo.view(DayOfWeek.TUESDAY));
+        assertEquals(0, repo.hoursOn((int) MONDAY.toEpochDay()));
+        assertEquals(List.of(second), added.get(0));
+        assertTrue(removed.get(0).isEmpty());
+
+        Task third = task("a", MONDAY, "Math", 3);
+        repo.update(List.of(), List.of(third, third));
+        assertEquals(List.of(third), repo.view(DayOfWeek.MONDAY));
+        assertTrue(repo.view(DayOfWeek.TUESDAY).isEmpty());
+        assertEquals(List.of(second), removed.get(1));
+    }
+
+    @Test
+    void updateReplacesAndRemovesInOneChange() {
+        repo.addAll(List.of(task("a", MONDAY, "Math", 1), task("b", MONDAY, "Art", 1)));
+        Task b2 = task("b", MONDAY.plusDays(2), "Art", 2);
+        repo.update(List.of(repo.findById("a")), List.of(b2));
+
+        assertEquals(2, added.size());
+        assertEquals(Set.of("a", "b"), new HashSet<>(ids(removed.get(1))));
+        assertTrue(repo.view(DayOfWeek.MONDAY).isEmpty());
+        assertEquals(List.of(b2), repo.view(DayOfWeek.WEDNESDAY));
+        assertEquals(0, repo.hoursOn((int) MONDAY.toEpochDay()));
+    }
+
+    @Test
+    void moveAndRemoveKeepEveryIndexInStep() {
+        repo.add(task("a", MONDAY, "Math", 1.5));
+        Task moved = repo.move("a", MONDAY.plusDays(4));
+
+        assertEquals(MONDAY.plusDays(4), moved.getDate());
+        assertSame(moved, repo.findById("a"));
+        assertTrue(repo.findByDate(MONDAY).isEmpty());
+        assertEquals(List.of(moved), repo.view(DayOfWeek.FRIDAY));
+        assertEquals(1.5, repo.hoursOn((int) MONDAY.plusDays(4).toEpochDay()));
+        assertNull(repo.move("missing", MONDAY));
+
+        assertSame(moved, repo.remove("a"));
+        assertTrue(repo.view(DayOfWeek.FRIDAY).isEmpty());
+        assertTrue(repo.findBySubject("Math").isEmpty());
+        assertNull(repo.firstDate());
+        assertNull(repo.remove("a"));
+    }
+
+    @Test
+    void preparedPlanReplacesEverything() {
+        repo.add(task("old", MONDAY, "Math", 1));
+        TaskRepository.Prepared p = TaskRepository.prepare(List.of(task("x", MONDAY.plusDays(1), "Art", 1),
+            task("x", MONDAY.plusDays(2), "Art", 2), task("y", MONDAY.plusDays(2), "Art", 1)));
+        assertEquals(2, p.size());
+        repo.apply(p);
+
+        assertNull(repo.findById("old"));
+        assertTrue(repo.view(DayOfWeek.MONDAY).isEmpty());
+        assertTrue(repo.view(DayOfWeek.TUESDAY).isEmpty());
+        assertEquals(Set.of("x", "y"), new HashSet<>(ids(repo.view(DayOfWeek.WEDNESDAY))));
+        assertEquals(3, repo.hoursOn((int) MONDAY.plusDays(2).toEpochDay()));
+
+        repo.clear();
+        assertEquals(0, repo.size());
+        assertTrue(repo.view(DayOfWeek.WEDNESDAY).isEmpty());
+    }
+}
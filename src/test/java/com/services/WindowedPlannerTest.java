@@ -0,0 +1,122 @@
+package com.services;
+
+import com.model.Subject;
+import com.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowedPlannerTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 2);
+    private static final LocalDate END = START.plusDays(20);
+    private static final List<Subject> SUBJECTS = List.of(
+        new Subject("Math", 4, 40, END), new Subject("Art", 2, 15, null));
+    private static final Pattern RANGE = Pattern.compile("from (\\S+) to (\\S+)\\.");
+
+    private final WindowedPlanner planner = new WindowedPlanner(3);
+
+    /** Answers each window's prompt with answer(window start); null means the endpoint is down. */
+    private static void useModel(Function<LocalDate, String> answer) {
+        String name = "windows-" + System.nanoTime();
+        AIService.setModelClient(new ModelClient() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public String generate(String prompt) throws IOException {
+                Matcher m = RANGE.matcher(prompt);
+                assertTrue(m.find(), prompt);
+                String text = answer.apply(LocalDate.parse(m.group(1)));
+                if (text == null) throw new ModelUnavailableException("API returned 503");
+                return text;
+            }
+
+            @Override
+            public void stream(String prompt, Consumer<String> chunks) throws IOException {
+                chunks.accept(generate(prompt));
+            }
+        });
+    }
+
+    // date | subject | hours of each task; local plans pick their titles at random
+    private static List<String> blocks(String plan) {
+        return AIService.parseTasksFromText(plan).stream()
+            .map(t -> t.getDate() + " | " + t.getSubject() + " | " + t.getHours()).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        planner.shutdown();
+        AIService.setModelClient(null);
+    }
+
+    @Test
+    void splitsIntoWeeksWithTheirShareOfEachSubject() {
+        assertFalse(WindowedPlanner.spansWindows(START, START.plusDays(6)));
+        assertTrue(WindowedPlanner.spansWindows(START, START.plusDays(7)));
+
+        List<WindowedPlanner.Window> windows = WindowedPlanner.split(SUBJECTS, 3, START, END);
+        assertEquals(3, windows.size());
+        Map<String, Double> budget = new HashMap<>();
+        for (int i = 0; i < windows.size(); i++) {
+            WindowedPlanner.Window w = windows.get(i);
+            assertEquals(START.plusDays(7L * i), w.start());
+            assertEquals(START.plusDays(7L * i + 6), w.end());
+            for (Subject s : w.subjects()) {
+                budget.merge(s.getName(), s.getTargetHours(), Double::sum);
+                if (s.getName().equals("Math")) assertEquals(i == 2 ? END : null, s.getExamDate(), "exam only in its own week");
+            }
+            for (Task t : AIService.parseTasksFromText(w.localPlan())) {
+                assertFalse(t.getDate().isBefore(w.start()) || t.getDate().isAfter(w.end()), t.toString());
+            }
+        }
+        assertEquals(Map.of("Math", 40.0, "Art", 15.0), budget);
+    }
+
+    @Test
+    void skipsWeeksWithNothingToDo() {
+        List<WindowedPlanner.Window> windows = WindowedPlanner.split(
+            List.of(new Subject("Math", 4, 4, START.plusDays(3))), 2, START, END);
+        assertEquals(1, windows.size());
+        assertEquals(START, windows.get(0).start());
+    }
+
+    @Test
+    void mergesModelRepairedAndLocalWindowsInDateOrder() throws Exception {
+        List<WindowedPlanner.Window> windows = WindowedPlanner.split(SUBJECTS, 3, START, END);
+        String first = START + " | Math | 2 | Limits\n" + START.plusDays(1) + " | Art | 1 | Sketch\n";
+        useModel(start -> {
+            if (start.equals(START)) return first;
+            if (start.equals(START.plusDays(7))) return null;
+            return start + " | math | 5 | Integrals\n";
+        });
+
+        String plan = planner.plan("k", SUBJECTS, 3, START, END);
+        assertTrue(plan.startsWith(first), plan);
+        List<String> merged = blocks(plan);
+        assertEquals(blocks(windows.get(1).localPlan()), merged.subList(2, merged.size() - 1),
+            "the failed week falls back to its local blocks");
+        assertTrue(plan.endsWith(START.plusDays(14) + " | Math | 3 | Integrals\n"), plan);
+    }
+
+    @Test
+    void reportsWhenNoWindowGetsAModelPlan() {
+        useModel(start -> null);
+        assertThrows(ModelClient.ModelUnavailableException.class, () -> planner.plan("k", SUBJECTS, 3, START, END));
+
+        useModel(start -> "no plan here");
+        assertDoesNotThrow(() -> assertNull(planner.plan("k", SUBJECTS, 3, START, END)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoursTest {
+
+    @Test
+    void printsHundredthsWithoutTrailingZeros() {
+        assertEquals("2", Hours.format(2));
+        assertEquals("1.5", Hours.format(1.5));
+        assertEquals("1.25", Hours.format(1.25));
+        assertEquals("1.05", Hours.format(1.05));
+        assertEquals("0", Hours.format(0.004));
+        assertEquals("-0.5", Hours.format(-0.5));
+        assertEquals("1.2", Hours.format(1.2f), "no float noise");
+        assertEquals("3.33", Hours.format(10 / 3.0));
+    }
+
+    @Test
+    void appendsAndRoundsTheSameWay() {
+        StringBuilder sb = new StringBuilder("h=");
+        assertSame(sb, Hours.append(sb, 2.499));
+        assertEquals("h=2.5", sb.toString());
+        assertEquals(1.2, Hours.rounded(1.2f));
+        assertEquals(2.5, Hours.rounded(2.499));
+    }
+}